@@ -1,5 +1,6 @@
 package net.lenni0451.benchmark;
 
+import net.lenni0451.lambdaevents.FrozenDispatcher;
 import net.lenni0451.lambdaevents.LambdaManager;
 import net.lenni0451.lambdaevents.generator.ASMGenerator;
 import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
@@ -22,6 +23,9 @@ public class CallBenchmark {
     private LambdaManager methodHandles;
     private LambdaManager lambdaMetaFactory;
     private LambdaManager asm;
+    private FrozenDispatcher frozenLambdaMetaFactory;
+    private LambdaManager threadSafeLambdaMetaFactory;
+    private LambdaManager indexedLambdaMetaFactory;
 
     @Setup
     public void setup() {
@@ -35,6 +39,15 @@ public class CallBenchmark {
         this.methodHandles.register(listener);
         this.lambdaMetaFactory.register(listener);
         this.asm.register(listener);
+
+        LambdaManager frozen = LambdaManager.basic(new LambdaMetaFactoryGenerator());
+        frozen.register(listener);
+        this.frozenLambdaMetaFactory = frozen.freeze();
+
+        this.threadSafeLambdaMetaFactory = LambdaManager.threadSafe(new LambdaMetaFactoryGenerator());
+        this.indexedLambdaMetaFactory = LambdaManager.indexed(new LambdaMetaFactoryGenerator());
+        this.threadSafeLambdaMetaFactory.register(listener);
+        this.indexedLambdaMetaFactory.register(listener);
     }
 
     @Benchmark
@@ -65,4 +78,53 @@ public class CallBenchmark {
         for (int i = 0; i < ITERATIONS; i++) this.asm.call(blackhole);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callFrozenLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.frozenLambdaMetaFactory.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callParentsLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.lambdaMetaFactory.callParents(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callParentsFrozenLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.frozenLambdaMetaFactory.callParents(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callThreadSafeLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.threadSafeLambdaMetaFactory.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callIndexedLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.indexedLambdaMetaFactory.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callParentsThreadSafeLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.threadSafeLambdaMetaFactory.callParents(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callParentsIndexedLambdaMetaFactory(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.indexedLambdaMetaFactory.callParents(blackhole);
+    }
+
 }
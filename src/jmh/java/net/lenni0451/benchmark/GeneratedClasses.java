@@ -0,0 +1,103 @@
+package net.lenni0451.benchmark;
+
+import net.lenni0451.lambdaevents.EventHandler;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Generates the event and listener classes used by the benchmarks.<br>
+ * The classes are defined by a new {@link Loader} every time, so their loading and reflection costs are not shared between runs.
+ */
+final class GeneratedClasses {
+
+    /**
+     * Generate an event class with a public no-args constructor.
+     *
+     * @param name      The internal name of the event
+     * @param superName The internal name of the super class
+     * @return The class bytes
+     */
+    static byte[] makeEvent(final String name, final String superName) {
+        ClassWriter w = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        w.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, superName, null);
+        writeConstructor(w, superName);
+        w.visitEnd();
+        return w.toByteArray();
+    }
+
+    /**
+     * Generate a listener class with a public no-args constructor and one handler method {@code on<index>} for every event.
+     *
+     * @param name        The internal name of the listener
+     * @param events      The internal names of the events of the handler methods
+     * @param handleOwner The internal name of the class whose {@code handle()} method is called on the event or {@code null} to leave the handlers empty
+     * @return The class bytes
+     */
+    static byte[] makeListener(final String name, final String[] events, final String handleOwner) {
+        ClassWriter w = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        w.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        writeConstructor(w, "java/lang/Object");
+        for (int i = 0; i < events.length; i++) {
+            MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC, "on" + i, "(L" + events[i] + ";)V", null, null);
+            mv.visitAnnotation(Type.getDescriptor(EventHandler.class), true).visitEnd();
+            if (handleOwner != null) {
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, handleOwner, "handle", "()V", false);
+            }
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        w.visitEnd();
+        return w.toByteArray();
+    }
+
+    private static void writeConstructor(final ClassWriter w, final String superName) {
+        MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+
+    /**
+     * A class loader which defines the generated classes.<br>
+     * The class bytes are also provided as resources, so they can be read by the {@link net.lenni0451.lambdaevents.utils.ClassFileScanner}.
+     */
+    static class Loader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        /**
+         * @param classes The class bytes by their internal name
+         */
+        Loader(final Map<String, byte[]> classes) {
+            super(GeneratedClasses.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            byte[] bytes = this.classes.get(name.replace('.', '/'));
+            if (bytes == null) throw new ClassNotFoundException(name);
+            return this.defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(final String name) {
+            if (name.endsWith(".class")) {
+                byte[] bytes = this.classes.get(name.substring(0, name.length() - ".class".length()));
+                if (bytes != null) return new ByteArrayInputStream(bytes);
+            }
+            return super.getResourceAsStream(name);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package net.lenni0451.benchmark;
+
+import net.lenni0451.lambdaevents.LambdaManager;
+import net.lenni0451.lambdaevents.ReentrancyPolicy;
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows the overhead of the reentrancy policies compared to a manager without a policy.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 4, time = 5)
+@Measurement(iterations = 4, time = 5)
+public class ReentrancyBenchmark {
+
+    private static final int ITERATIONS = 100_000;
+
+    private LambdaManager disabled;
+    private LambdaManager depthLimit;
+    private LambdaManager deferNested;
+
+    @Setup
+    public void setup() {
+        BenchmarkListener listener = new BenchmarkListener();
+        this.disabled = LambdaManager.basic(new LambdaMetaFactoryGenerator());
+        this.depthLimit = LambdaManager.basic(new LambdaMetaFactoryGenerator()).setReentrancyPolicy(ReentrancyPolicy.depthLimit(16));
+        this.deferNested = LambdaManager.basic(new LambdaMetaFactoryGenerator()).setReentrancyPolicy(ReentrancyPolicy.deferNested());
+
+        this.disabled.register(listener);
+        this.depthLimit.register(listener);
+        this.deferNested.register(listener);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callDisabled(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.disabled.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callDepthLimit(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.depthLimit.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callDeferNested(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.deferNested.call(blackhole);
+    }
+
+}
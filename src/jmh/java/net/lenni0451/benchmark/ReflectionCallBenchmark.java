@@ -0,0 +1,71 @@
+package net.lenni0451.benchmark;
+
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.LambdaManager;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the allocations of the reflection handlers.<br>
+ * Run with the gc profiler ({@code -prof gc}) to see the allocation rate, the handler calls should allocate {@code 0 B/op}.
+ * {@link #invokeVarargs(Blackhole)} calls the method like the handlers did before and allocates an argument array for every call.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 4, time = 5)
+@Measurement(iterations = 4, time = 5)
+public class ReflectionCallBenchmark {
+
+    private static final int ITERATIONS = 100_000;
+
+    private LambdaManager manager;
+    private LambdaManager virtualManager;
+    private BenchmarkListener listener;
+    private Method method;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        this.listener = new BenchmarkListener();
+        this.manager = LambdaManager.basic(new ReflectionGenerator());
+        this.manager.register(this.listener);
+        this.virtualManager = LambdaManager.basic(new ReflectionGenerator());
+        this.virtualManager.register(new VirtualListener());
+        this.method = BenchmarkListener.class.getDeclaredMethod("onEvent", Blackhole.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void call(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.manager.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void callVirtual(Blackhole blackhole) {
+        for (int i = 0; i < ITERATIONS; i++) this.virtualManager.call(blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(value = 1, warmups = 1)
+    public void invokeVarargs(Blackhole blackhole) throws ReflectiveOperationException {
+        for (int i = 0; i < ITERATIONS; i++) this.method.invoke(this.listener, blackhole);
+    }
+
+
+    public static class VirtualListener {
+        private int counter;
+
+        @EventHandler(events = Blackhole.class)
+        public void onEvent() {
+            this.counter++;
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package net.lenni0451.benchmark;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.LambdaManager;
+import net.lenni0451.lambdaevents.generator.ASMGenerator;
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.MethodHandleGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold startup costs of registering and unregistering listeners.<br>
+ * Every fork only measures a single invocation without warmup, so the costs of class loading, the first calls and the interpreter are included.
+ * The listeners and events are generated classes which are loaded by a new class loader for every invocation.<br>
+ * - {@link #register(RegisterState)} registers all listeners (scanning, generating the handlers and building the call chains)<br>
+ * - {@link #generate(GenerateState)} only generates the handlers (e.g. {@code ASMGenerator.define} or the {@code LambdaMetafactory} spin)<br>
+ * - {@link #unregister(UnregisterState)} unregisters {@value #UNREGISTERED} listeners from a manager with a lot of handlers<br>
+ * - {@link #unregisterAllEvents(UnregisterState)} unregisters all handlers of every event class<br>
+ * - {@link #unregisterAllClassLoader(UnregisterState)} unregisters all handlers of the class loader (e.g. when unloading a plugin)
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class RegistrationBenchmark {
+
+    private static final int EVENTS = 200;
+    private static final int HANDLERS = 4;
+    private static final int UNREGISTERED = 100;
+    private static final String PACKAGE = "net/lenni0451/benchmark/generated/registration/";
+
+    @Benchmark
+    public LambdaManager register(final RegisterState state) {
+        LambdaManager manager = LambdaManager.basic(state.generator);
+        for (Object listener : state.listeners) manager.register(listener);
+        return manager;
+    }
+
+    @Benchmark
+    public AHandler[] generate(final GenerateState state) {
+        AHandler[] handlers = new AHandler[state.methods.length];
+        for (int i = 0; i < handlers.length; i++) {
+            Method method = state.methods[i];
+            Object instance = state.listeners[i / HANDLERS];
+            handlers[i] = state.generator.generate(instance.getClass(), instance, state.annotations[i], method, method.getParameterTypes()[0]);
+        }
+        return handlers;
+    }
+
+    @Benchmark
+    public LambdaManager unregister(final UnregisterState state) {
+        for (int i = 0; i < UNREGISTERED; i++) state.manager.unregister(state.listeners[i]);
+        return state.manager;
+    }
+
+    @Benchmark
+    public LambdaManager unregisterAllEvents(final UnregisterState state) {
+        for (Class<?> event : state.events) state.manager.unregisterAll(event);
+        return state.manager;
+    }
+
+    @Benchmark
+    public LambdaManager unregisterAllClassLoader(final UnregisterState state) {
+        state.manager.unregisterAll(state.loader);
+        return state.manager;
+    }
+
+    private static Map<String, byte[]> makeClasses(final int listeners) {
+        Random random = new Random(0);
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < EVENTS; i++) classes.put(PACKAGE + "Event" + i, GeneratedClasses.makeEvent(PACKAGE + "Event" + i, "java/lang/Object"));
+        for (int i = 0; i < listeners; i++) {
+            String[] events = new String[HANDLERS];
+            for (int j = 0; j < events.length; j++) events[j] = PACKAGE + "Event" + random.nextInt(EVENTS);
+            classes.put(PACKAGE + "Listener" + i, GeneratedClasses.makeListener(PACKAGE + "Listener" + i, events, null));
+        }
+        return classes;
+    }
+
+    private static IGenerator makeGenerator(final String type) {
+        switch (type) {
+            case "reflection":
+                return new ReflectionGenerator();
+            case "methodHandles":
+                return new MethodHandleGenerator();
+            case "lambdaMetaFactory":
+                return new LambdaMetaFactoryGenerator();
+            case "asm":
+                return new ASMGenerator();
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + type);
+        }
+    }
+
+    private static Object[] loadListeners(final GeneratedClasses.Loader loader, final int count) throws ReflectiveOperationException {
+        Object[] listeners = new Object[count];
+        for (int i = 0; i < count; i++) listeners[i] = loader.loadClass(PACKAGE.replace('/', '.') + "Listener" + i).getConstructor().newInstance();
+        return listeners;
+    }
+
+
+    /**
+     * Only loads the listener classes, so registering them includes reflecting their members.
+     */
+    @State(Scope.Benchmark)
+    public static class RegisterState {
+        @Param({"reflection", "methodHandles", "lambdaMetaFactory", "asm"})
+        public String generatorType;
+        @Param({"100", "1000"})
+        public int listenerCount;
+
+        private Map<String, byte[]> classes;
+        private IGenerator generator;
+        private Object[] listeners;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.classes = makeClasses(this.listenerCount);
+        }
+
+        @Setup(Level.Invocation)
+        public void loadListeners() throws ReflectiveOperationException {
+            this.generator = makeGenerator(this.generatorType);
+            this.listeners = RegistrationBenchmark.loadListeners(new GeneratedClasses.Loader(this.classes), this.listenerCount);
+        }
+    }
+
+    /**
+     * Also reflects the handler methods and their annotations, so only the generation is measured.
+     */
+    @State(Scope.Benchmark)
+    public static class GenerateState {
+        @Param({"reflection", "methodHandles", "lambdaMetaFactory", "asm"})
+        public String generatorType;
+        @Param({"100", "1000"})
+        public int listenerCount;
+
+        private Map<String, byte[]> classes;
+        private IGenerator generator;
+        private Object[] listeners;
+        private Method[] methods;
+        private EventHandler[] annotations;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.classes = makeClasses(this.listenerCount);
+        }
+
+        @Setup(Level.Invocation)
+        public void loadHandlers() throws ReflectiveOperationException {
+            this.generator = makeGenerator(this.generatorType);
+            this.listeners = RegistrationBenchmark.loadListeners(new GeneratedClasses.Loader(this.classes), this.listenerCount);
+            List<Method> methods = new ArrayList<>();
+            for (Object listener : this.listeners) {
+                for (int i = 0; i < HANDLERS; i++) {
+                    for (Method method : listener.getClass().getDeclaredMethods()) {
+                        if (method.getName().equals("on" + i)) methods.add(method);
+                    }
+                }
+            }
+            this.methods = methods.toArray(new Method[0]);
+            this.annotations = new EventHandler[this.methods.length];
+            for (int i = 0; i < this.methods.length; i++) this.annotations[i] = this.methods[i].getDeclaredAnnotation(EventHandler.class);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UnregisterState {
+        @Param({"1000", "5000"})
+        public int listenerCount;
+
+        private Map<String, byte[]> classes;
+        private GeneratedClasses.Loader loader;
+        private LambdaManager manager;
+        private Object[] listeners;
+        private Class<?>[] events;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.classes = makeClasses(this.listenerCount);
+        }
+
+        @Setup(Level.Invocation)
+        public void registerListeners() throws ReflectiveOperationException {
+            this.loader = new GeneratedClasses.Loader(this.classes);
+            this.listeners = RegistrationBenchmark.loadListeners(this.loader, this.listenerCount);
+            this.events = new Class<?>[EVENTS];
+            for (int i = 0; i < EVENTS; i++) this.events[i] = this.loader.loadClass(PACKAGE.replace('/', '.') + "Event" + i);
+            this.manager = LambdaManager.basic(new ReflectionGenerator()); //The generator does not matter for unregistering
+            for (Object listener : this.listeners) this.manager.register(listener);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package net.lenni0451.benchmark;
+
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.LambdaManager;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import net.lenni0451.lambdaevents.utils.ClassFileScanner;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the registration of listeners with a lot of methods using reflection and the {@link ClassFileScanner}.<br>
+ * Every listener has 300 methods but only one event handler and extends its own class with 300 methods without event handlers.<br>
+ * The listener classes are loaded by a new class loader for every invocation, so no reflection data is cached.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class ScanBenchmark {
+
+    private static final int LISTENERS = 200;
+    private static final int METHODS = 300;
+    private static final String PACKAGE = "net/lenni0451/benchmark/generated/";
+
+    @Param({"false", "true"})
+    public boolean scanClassFiles;
+
+    private Map<String, byte[]> classes;
+    private Object[] listeners;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.classes = new HashMap<>();
+        for (int i = 0; i < LISTENERS; i++) {
+            this.classes.put(PACKAGE + "ListenerBase" + i, makeClass(PACKAGE + "ListenerBase" + i, "java/lang/Object", false));
+            this.classes.put(PACKAGE + "Listener" + i, makeClass(PACKAGE + "Listener" + i, PACKAGE + "ListenerBase" + i, true));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void loadListeners() throws ReflectiveOperationException {
+        GeneratedClasses.Loader loader = new GeneratedClasses.Loader(this.classes);
+        this.listeners = new Object[LISTENERS];
+        for (int i = 0; i < LISTENERS; i++) this.listeners[i] = loader.loadClass(PACKAGE.replace('/', '.') + "Listener" + i).getConstructor().newInstance();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(value = 1, warmups = 1)
+    public LambdaManager register() {
+        LambdaManager manager = LambdaManager.basic(new ReflectionGenerator()).setRegisterSuperHandler(true).setScanClassFiles(this.scanClassFiles);
+        for (Object listener : this.listeners) manager.register(listener);
+        return manager;
+    }
+
+    private static byte[] makeClass(final String name, final String superName, final boolean handler) {
+        ClassWriter w = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        w.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, superName, null);
+        MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        for (int i = 0; i < METHODS; i++) {
+            mv = w.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "(Ljava/lang/String;Ljava/util/List;I)Ljava/lang/Object;", null, null);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        if (handler) {
+            mv = w.visitMethod(Opcodes.ACC_PUBLIC, "onEvent", "(Ljava/lang/String;)V", null, null);
+            mv.visitAnnotation(Type.getDescriptor(EventHandler.class), true).visitEnd();
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        w.visitEnd();
+        return w.toByteArray();
+    }
+
+}
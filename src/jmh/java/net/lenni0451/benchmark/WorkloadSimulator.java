@@ -0,0 +1,428 @@
+package net.lenni0451.benchmark;
+
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.LambdaManager;
+import net.lenni0451.lambdaevents.generator.ASMGenerator;
+import net.lenni0451.lambdaevents.generator.AutoGenerator;
+import net.lenni0451.lambdaevents.generator.HiddenClassGenerator;
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.MethodHandleGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import net.lenni0451.lambdaevents.types.ICancellableEvent;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A macro benchmark which simulates the workload of a big application instead of measuring a single call.<br>
+ * It generates synthetic event hierarchies and listener classes and runs a mixed workload of event calls and listener churn
+ * (unregistering and registering listeners) on multiple threads for every combination of generator and manager type.<br>
+ * Throughput, call latency percentiles, churn latency percentiles and the allocation rate of the worker threads are reported.<br>
+ * <br>
+ * Run it using {@code ./gradlew simulateWorkload -Psimulator="threads=8 duration=30"}. The options are passed as {@code key=value}:<br>
+ * - {@code listeners} The amount of listener classes (default 5000)<br>
+ * - {@code handlers} The amount of handler methods per listener class (default 2)<br>
+ * - {@code events} The amount of event classes (default 300)<br>
+ * - {@code depth} The maximum depth of the event hierarchies (default 8)<br>
+ * - {@code cancellable} The fraction of cancellable event hierarchies (default 0.1)<br>
+ * - {@code parentCalls} The fraction of events called using {@code callParents} (default 0.5)<br>
+ * - {@code churn} The amount of listeners which are replaced every second (default 50)<br>
+ * - {@code threads} The amount of worker threads, {@code basic} managers always use a single thread (default 4)<br>
+ * - {@code warmup} The warmup time in seconds (default 5)<br>
+ * - {@code duration} The measurement time in seconds (default 10)<br>
+ * - {@code generators} The generators to test: reflection, methodHandles, lambdaMetaFactory, asm, hiddenClass, auto (default lambdaMetaFactory,methodHandles,reflection)<br>
+ * - {@code managers} The manager types to test: basic, threadSafe, indexed (default basic,threadSafe,indexed)<br>
+ * - {@code seed} The seed for the generated classes and the workload (default 0)
+ */
+public class WorkloadSimulator {
+
+    private static final String PACKAGE = "net/lenni0451/benchmark/generated/simulator/";
+    private static final int CANCEL_AFTER = 3;
+
+    public static void main(final String[] args) throws Exception {
+        Config config = new Config(args);
+        Map<String, byte[]> classes = generateClasses(config);
+        System.out.printf("Simulating %d listeners with %d handlers each, %d events (depth %d, %.0f%% cancellable), %d listeners churn per second%n",
+                config.listeners, config.handlers, config.events, config.depth, config.cancellable * 100, config.churn);
+        System.out.printf("Warmup %ds, measurement %ds, %.0f%% parent calls%n%n", config.warmup, config.duration, config.parentCalls * 100);
+        System.out.printf("%-18s %-11s %7s %10s %12s %12s %9s %9s %9s %9s %10s %10s %10s %9s %9s%n",
+                "Generator", "Manager", "Threads", "Register", "Calls/s", "Handlers/s", "p50", "p90", "p99", "p99.9", "Max", "Churn p50", "Churn p99", "MB/s", "B/call");
+        for (String generator : config.generators) {
+            for (String manager : config.managers) {
+                try {
+                    Result result = run(config, classes, generator, manager);
+                    System.out.printf("%-18s %-11s %7d %8dms %12.0f %12.0f %7dns %7dns %7dns %7dns %8dns %8dus %8dus %9s %9s%n",
+                            generator, manager, result.threads, TimeUnit.NANOSECONDS.toMillis(result.registerTime),
+                            result.calls / result.seconds, result.handlerCalls / result.seconds,
+                            result.latencies.percentile(0.5), result.latencies.percentile(0.9), result.latencies.percentile(0.99), result.latencies.percentile(0.999), result.latencies.max,
+                            TimeUnit.NANOSECONDS.toMicros(result.churnLatencies.percentile(0.5)), TimeUnit.NANOSECONDS.toMicros(result.churnLatencies.percentile(0.99)),
+                            result.allocated < 0 ? "n/a" : String.format("%.1f", result.allocated / result.seconds / 1024 / 1024),
+                            result.allocated < 0 ? "n/a" : String.format("%.1f", (double) result.allocated / result.calls));
+                } catch (Throwable t) {
+                    System.out.printf("%-18s %-11s failed: %s%n", generator, manager, t);
+                }
+                System.gc();
+            }
+        }
+    }
+
+    private static Map<String, byte[]> generateClasses(final Config config) {
+        Random random = new Random(config.seed);
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < config.events; i++) {
+            String superName;
+            if (i % config.depth == 0) superName = Type.getInternalName(random.nextDouble() < config.cancellable ? CancellableEvent.class : Event.class);
+            else superName = PACKAGE + "Event" + (i - 1);
+            classes.put(PACKAGE + "Event" + i, GeneratedClasses.makeEvent(PACKAGE + "Event" + i, superName));
+        }
+        for (int i = 0; i < config.listeners; i++) {
+            String[] events = new String[config.handlers];
+            for (int j = 0; j < events.length; j++) events[j] = PACKAGE + "Event" + random.nextInt(config.events);
+            classes.put(PACKAGE + "Listener" + i, GeneratedClasses.makeListener(PACKAGE + "Listener" + i, events, Type.getInternalName(Event.class)));
+        }
+        return classes;
+    }
+
+    private static Result run(final Config config, final Map<String, byte[]> classes, final String generatorName, final String managerName) throws Exception {
+        GeneratedClasses.Loader loader = new GeneratedClasses.Loader(classes);
+        Class<?>[] events = new Class[config.events];
+        for (int i = 0; i < events.length; i++) events[i] = loader.loadClass(PACKAGE.replace('/', '.') + "Event" + i);
+        Class<?>[] listenerClasses = new Class[config.listeners];
+        Object[] listeners = new Object[config.listeners];
+        for (int i = 0; i < listeners.length; i++) {
+            listenerClasses[i] = loader.loadClass(PACKAGE.replace('/', '.') + "Listener" + i);
+            listeners[i] = listenerClasses[i].getConstructor().newInstance();
+        }
+
+        LambdaManager manager = createManager(managerName, createGenerator(generatorName));
+        long registerStart = System.nanoTime();
+        for (Object listener : listeners) manager.register(listener);
+        long registerTime = System.nanoTime() - registerStart;
+
+        int threads = managerName.equals("basic") ? 1 : config.threads; //The basic manager is not thread safe
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmup);
+        long measurementEnd = warmupEnd + TimeUnit.SECONDS.toNanos(config.duration);
+        Worker[] workers = new Worker[threads];
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(config, manager, events, listenerClasses, listeners, i, threads, warmupEnd, measurementEnd, done);
+            Thread thread = new Thread(workers[i], "WorkloadSimulator-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        Result result = new Result(threads, registerTime, config.duration);
+        for (Worker worker : workers) {
+            if (worker.error != null) throw worker.error;
+            result.add(worker);
+        }
+        return result;
+    }
+
+    private static IGenerator createGenerator(final String name) {
+        switch (name) {
+            case "reflection":
+                return new ReflectionGenerator();
+            case "methodHandles":
+                return new MethodHandleGenerator(MethodHandles.lookup());
+            case "lambdaMetaFactory":
+                return new LambdaMetaFactoryGenerator(MethodHandles.lookup());
+            case "asm":
+                return new ASMGenerator();
+            case "hiddenClass":
+                return HiddenClassGenerator.create(MethodHandles.lookup());
+            case "auto":
+                return new AutoGenerator(MethodHandles.lookup());
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + name);
+        }
+    }
+
+    private static LambdaManager createManager(final String name, final IGenerator generator) {
+        switch (name) {
+            case "basic":
+                return LambdaManager.basic(generator);
+            case "threadSafe":
+                return LambdaManager.threadSafe(generator);
+            case "indexed":
+                return LambdaManager.indexed(generator);
+            default:
+                throw new IllegalArgumentException("Unknown manager: " + name);
+        }
+    }
+
+
+    /**
+     * The base class of all generated events.
+     */
+    public static class Event {
+        protected int handled;
+
+        public void handle() {
+            this.handled++;
+        }
+
+        public void reset() {
+            this.handled = 0;
+        }
+    }
+
+    /**
+     * The base class of all generated cancellable events. The events are cancelled after {@link #CANCEL_AFTER} handlers.
+     */
+    public static class CancellableEvent extends Event implements ICancellableEvent {
+        private boolean cancelled;
+
+        @Override
+        public void handle() {
+            super.handle();
+            if (this.handled >= CANCEL_AFTER) this.cancelled = true;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            this.cancelled = false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+    }
+
+    /**
+     * The options of the simulation.
+     */
+    private static class Config {
+        private final int listeners;
+        private final int handlers;
+        private final int events;
+        private final int depth;
+        private final double cancellable;
+        private final double parentCalls;
+        private final int churn;
+        private final int threads;
+        private final int warmup;
+        private final int duration;
+        private final List<String> generators;
+        private final List<String> managers;
+        private final long seed;
+
+        private Config(final String[] args) {
+            Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (arg.isEmpty()) continue;
+                int index = arg.indexOf('=');
+                if (index == -1) throw new IllegalArgumentException("Options have to be passed as key=value: " + arg);
+                options.put(arg.substring(0, index), arg.substring(index + 1));
+            }
+            this.listeners = Integer.parseInt(options.getOrDefault("listeners", "5000"));
+            this.handlers = Integer.parseInt(options.getOrDefault("handlers", "2"));
+            this.events = Integer.parseInt(options.getOrDefault("events", "300"));
+            this.depth = Integer.parseInt(options.getOrDefault("depth", "8"));
+            this.cancellable = Double.parseDouble(options.getOrDefault("cancellable", "0.1"));
+            this.parentCalls = Double.parseDouble(options.getOrDefault("parentCalls", "0.5"));
+            this.churn = Integer.parseInt(options.getOrDefault("churn", "50"));
+            this.threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+            this.warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+            this.duration = Integer.parseInt(options.getOrDefault("duration", "10"));
+            this.generators = Arrays.asList(options.getOrDefault("generators", "lambdaMetaFactory,methodHandles,reflection").split(","));
+            this.managers = Arrays.asList(options.getOrDefault("managers", "basic,threadSafe,indexed").split(","));
+            this.seed = Long.parseLong(options.getOrDefault("seed", "0"));
+            if (this.events < 1 || this.depth < 1 || this.threads < 1 || this.duration < 1) throw new IllegalArgumentException("events, depth, threads and duration have to be at least 1");
+        }
+    }
+
+    /**
+     * A worker thread which calls events and replaces the listeners it owns.<br>
+     * Every worker owns the listeners whose index modulo the thread count is the worker id, so no listener is replaced by two threads at the same time.
+     */
+    private static class Worker implements Runnable {
+        private final LambdaManager manager;
+        private final Event[] events;
+        private final Class<?>[] listenerClasses;
+        private final Object[] listeners;
+        private final int id;
+        private final int threads;
+        private final double parentCalls;
+        private final long churnInterval;
+        private final long warmupEnd;
+        private final long measurementEnd;
+        private final CountDownLatch done;
+        private final Random random;
+        private final Histogram latencies = new Histogram();
+        private final Histogram churnLatencies = new Histogram();
+        private long calls;
+        private long handlerCalls;
+        private long allocated = -1;
+        private Exception error;
+
+        private Worker(final Config config, final LambdaManager manager, final Class<?>[] events, final Class<?>[] listenerClasses, final Object[] listeners,
+                       final int id, final int threads, final long warmupEnd, final long measurementEnd, final CountDownLatch done) throws ReflectiveOperationException {
+            this.manager = manager;
+            this.events = new Event[events.length];
+            for (int i = 0; i < events.length; i++) this.events[i] = (Event) events[i].getConstructor().newInstance();
+            this.listenerClasses = listenerClasses;
+            this.listeners = listeners;
+            this.id = id;
+            this.threads = threads;
+            this.parentCalls = config.parentCalls;
+            int ownedChurn = config.churn / threads + (id < config.churn % threads ? 1 : 0);
+            this.churnInterval = ownedChurn == 0 ? Long.MAX_VALUE : TimeUnit.SECONDS.toNanos(1) / ownedChurn;
+            this.warmupEnd = warmupEnd;
+            this.measurementEnd = measurementEnd;
+            this.done = done;
+            this.random = new Random(config.seed + id);
+        }
+
+        @Override
+        public void run() {
+            try {
+                long nextChurn = this.churnInterval == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + this.churnInterval;
+                boolean measuring = false;
+                long allocatedStart = 0;
+                while (true) {
+                    long now = System.nanoTime();
+                    if (!measuring && now >= this.warmupEnd) {
+                        measuring = true;
+                        allocatedStart = allocatedBytes();
+                    }
+                    if (now >= this.measurementEnd) break;
+
+                    if (now >= nextChurn) {
+                        nextChurn += this.churnInterval;
+                        long churnTime = this.churn();
+                        if (measuring) this.churnLatencies.record(churnTime);
+                    }
+                    Event event = this.events[this.random.nextInt(this.events.length)];
+                    boolean parents = this.random.nextDouble() < this.parentCalls;
+                    event.reset();
+                    long start = System.nanoTime();
+                    if (parents) this.manager.callParents(event);
+                    else this.manager.call(event);
+                    long time = System.nanoTime() - start;
+                    if (measuring) {
+                        this.latencies.record(time);
+                        this.calls++;
+                        this.handlerCalls += event.handled;
+                    }
+                }
+                if (allocatedStart >= 0) {
+                    long allocatedEnd = allocatedBytes();
+                    if (allocatedEnd >= 0) this.allocated = allocatedEnd - allocatedStart;
+                }
+            } catch (Exception e) {
+                this.error = e;
+            } finally {
+                this.done.countDown();
+            }
+        }
+
+        private long churn() throws ReflectiveOperationException {
+            int owned = (this.listeners.length - this.id + this.threads - 1) / this.threads;
+            if (owned == 0) return 0;
+            int index = this.id + this.random.nextInt(owned) * this.threads;
+            Object replacement = this.listenerClasses[index].getConstructor().newInstance();
+            long start = System.nanoTime();
+            this.manager.unregister(this.listeners[index]);
+            this.manager.register(replacement);
+            long time = System.nanoTime() - start;
+            this.listeners[index] = replacement;
+            return time;
+        }
+
+        private static long allocatedBytes() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * The merged results of all workers.
+     */
+    private static class Result {
+        private final int threads;
+        private final long registerTime;
+        private final double seconds;
+        private final Histogram latencies = new Histogram();
+        private final Histogram churnLatencies = new Histogram();
+        private long calls;
+        private long handlerCalls;
+        private long allocated;
+
+        private Result(final int threads, final long registerTime, final int seconds) {
+            this.threads = threads;
+            this.registerTime = registerTime;
+            this.seconds = seconds;
+        }
+
+        private void add(final Worker worker) {
+            this.latencies.add(worker.latencies);
+            this.churnLatencies.add(worker.churnLatencies);
+            this.calls += worker.calls;
+            this.handlerCalls += worker.handlerCalls;
+            if (this.allocated >= 0) this.allocated = worker.allocated < 0 ? -1 : this.allocated + worker.allocated;
+        }
+    }
+
+    /**
+     * A log-linear histogram with 32 sub buckets per power of two, which has an error of about 3%.
+     */
+    private static class Histogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] counts = new long[64 * SUB_BUCKETS];
+        private long total;
+        private long max;
+
+        private void record(final long value) {
+            long clamped = Math.max(0, value);
+            this.counts[index(clamped)]++;
+            this.total++;
+            if (clamped > this.max) this.max = clamped;
+        }
+
+        private void add(final Histogram other) {
+            for (int i = 0; i < this.counts.length; i++) this.counts[i] += other.counts[i];
+            this.total += other.total;
+            this.max = Math.max(this.max, other.max);
+        }
+
+        private long percentile(final double percentile) {
+            if (this.total == 0) return 0;
+            long target = (long) Math.ceil(percentile * this.total);
+            long count = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                count += this.counts[i];
+                if (count >= target) return Math.min(value(i), this.max);
+            }
+            return this.max;
+        }
+
+        private static int index(final long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+        }
+
+        private static long value(final int index) {
+            if (index < SUB_BUCKETS) return index;
+            int shift = index / SUB_BUCKETS - 1;
+            return ((long) (index % SUB_BUCKETS + SUB_BUCKETS + 1) << shift) - 1; //The upper bound of the bucket
+        }
+    }
+
+}
@@ -1,5 +1,8 @@
 package net.lenni0451.lambdaevents;
 
+import net.lenni0451.lambdaevents.guard.Guard;
+import net.lenni0451.lambdaevents.guard.GuardSet;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -15,6 +18,11 @@ public abstract class AHandler {
     @Nonnull
     protected final EventHandler annotation;
     private final boolean handleCancelled;
+    private boolean virtual;
+    @Nonnull
+    private Guard[] guards = Guard.NONE;
+    @Nullable
+    private GuardSet guardSet;
 
     /**
      * @param owner      The owner of the handler method
@@ -66,6 +74,41 @@ public abstract class AHandler {
         return this.handleCancelled;
     }
 
+    /**
+     * @return If the handler does not use the event instance and can be called using {@link LambdaManager#callVirtual(Class)}
+     */
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    void setVirtual(final boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    /**
+     * @return The guards which have to be met before the handler is called
+     */
+    @Nonnull
+    public Guard[] getGuards() {
+        return this.guards;
+    }
+
+    void setGuards(@Nonnull final Guard[] guards) {
+        this.guards = guards;
+    }
+
+    /**
+     * @return The guards of the handler inside its current call chain or {@code null} if the handler has no guards
+     */
+    @Nullable
+    GuardSet getGuardSet() {
+        return this.guardSet;
+    }
+
+    void setGuardSet(@Nullable final GuardSet guardSet) {
+        this.guardSet = guardSet;
+    }
+
     /**
      * Call the event handler with the given event instance.
      *
@@ -0,0 +1,97 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.types.IKeyedEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The immutable call chain of an event class.<br>
+ * The unkeyed handlers and the call chains of all keys are published together, so a call never combines an old and a new call chain.
+ */
+final class CallChain {
+
+    @Nonnull
+    private final AHandler[] handlers;
+    @Nullable
+    private final Map<Object, AHandler[]> keyedHandlers;
+
+    /**
+     * @param handlers      The unkeyed handlers
+     * @param keyedHandlers The call chains for every key (containing the unkeyed handlers) or {@code null} if there are no keyed handlers
+     */
+    CallChain(@Nonnull final AHandler[] handlers, @Nullable final Map<Object, AHandler[]> keyedHandlers) {
+        this.handlers = handlers;
+        this.keyedHandlers = keyedHandlers;
+    }
+
+    /**
+     * @return The unkeyed handlers
+     */
+    @Nonnull
+    AHandler[] getHandlers() {
+        return this.handlers;
+    }
+
+    /**
+     * Get the handlers which should be called for the given event.<br>
+     * Keyed events get the call chain of their key, all other events the unkeyed handlers.
+     *
+     * @param event The event instance
+     * @return The handlers to call
+     */
+    @Nonnull
+    AHandler[] getHandlers(final Object event) {
+        if (this.keyedHandlers != null && event instanceof IKeyedEvent) {
+            AHandler[] matchingHandlers = this.keyedHandlers.get(((IKeyedEvent) event).getEventKey());
+            if (matchingHandlers != null) return matchingHandlers;
+        }
+        return this.handlers;
+    }
+
+    /**
+     * Get the handlers which would be called for an event with the given key.
+     *
+     * @param key The key of the event
+     * @return The handlers to call
+     */
+    @Nonnull
+    AHandler[] getKeyedHandlers(final Object key) {
+        if (this.keyedHandlers != null) {
+            AHandler[] matchingHandlers = this.keyedHandlers.get(key);
+            if (matchingHandlers != null) return matchingHandlers;
+        }
+        return this.handlers;
+    }
+
+    /**
+     * Create a copy of this call chain with a handler replaced at the same positions.<br>
+     * The order of the handlers is not changed, so the replacement needs the same priority.
+     *
+     * @param handler     The handler to replace
+     * @param replacement The replacing handler
+     * @return The new call chain
+     */
+    @Nonnull
+    CallChain replace(final AHandler handler, final AHandler replacement) {
+        Map<Object, AHandler[]> keyedHandlers = null;
+        if (this.keyedHandlers != null) {
+            keyedHandlers = new HashMap<>();
+            for (Map.Entry<Object, AHandler[]> entry : this.keyedHandlers.entrySet()) {
+                keyedHandlers.put(entry.getKey(), replace(entry.getValue(), handler, replacement));
+            }
+        }
+        return new CallChain(replace(this.handlers, handler, replacement), keyedHandlers);
+    }
+
+    private static AHandler[] replace(final AHandler[] handlers, final AHandler handler, final AHandler replacement) {
+        AHandler[] replaced = handlers.clone();
+        for (int i = 0; i < replaced.length; i++) {
+            if (replaced[i] == handler) replaced[i] = replacement;
+        }
+        return replaced;
+    }
+
+}
@@ -39,4 +39,57 @@ public @interface EventHandler {
      */
     boolean handleCancelled() default true;
 
+    /**
+     * The types the event has to be an instance of for the handler to be called.<br>
+     * This replaces {@code if (!(event instanceof Type)) return;} checks, e.g. in handlers for parent events.
+     *
+     * @return The required types or an empty array
+     */
+    Class<?>[] requireTypes() default {};
+
+    /**
+     * Static predicate methods which have to return {@code true} for the handler to be called.<br>
+     * The methods are referenced by their name in the owner class (e.g. {@code "isValid"})
+     * or by the class and their name (e.g. {@code "com.example.Guards#isValid"}).<br>
+     * A predicate method has to be static, return a boolean and take the event (or a super type of it) as the only parameter.<br>
+     * The result of a predicate is shared by all handlers of a call, so it must not depend on state which handlers can change.
+     * Use {@link #requireState()} for mutable state of the event.
+     *
+     * @return The predicate method references or an empty array
+     */
+    String[] guards() default {};
+
+    /**
+     * Boolean fields or methods without parameters of the event which have to be {@code true} for the handler to be called.<br>
+     * Prefix the name with {@code !} if the value has to be {@code false} (e.g. {@code "!isCancelled"}).
+     *
+     * @return The names of the required fields or methods or an empty array
+     */
+    String[] requireState() default {};
+
+    /**
+     * Collect the events and call the handler with multiple events at once.<br>
+     * The handler method has to take a {@link java.util.List} or an array of the event type as the only parameter.
+     * If no {@link #events()} are given, the event type is taken from the list type argument or the array component type.<br>
+     * The list is reused for the following batches and must not be stored by the handler.<br>
+     * The batch is passed to the handler when {@link #batchSize()} or {@link #batchWindow()} is reached
+     * or when {@link net.lenni0451.lambdaevents.LambdaManager#flushBatches()} is called.
+     *
+     * @return If the handler receives batches of events
+     */
+    boolean batch() default false;
+
+    /**
+     * @return The amount of events after which a batch is passed to the handler or {@code 0} to only pass it when flushing
+     */
+    int batchSize() default 0;
+
+    /**
+     * The time in milliseconds after the first event of a batch after which the batch is passed to the handler.<br>
+     * The time is only checked when a new event is added to the batch.
+     *
+     * @return The time window in milliseconds or {@code 0} to only pass it when flushing
+     */
+    long batchWindow() default 0;
+
 }
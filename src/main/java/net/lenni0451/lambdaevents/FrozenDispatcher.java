@@ -0,0 +1,177 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.utils.EventUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * An immutable snapshot of the handlers of a {@link LambdaManager}, created using {@link LambdaManager#freeze()}.<br>
+ * The call chains of every called event class are resolved once and cached with the class, including the parent classes for
+ * {@link #callParents(Object)} and the result of the event filter. Calling an event only requires a single lookup.<br>
+ * <br>
+ * The event filter has to return the same result for the same event class, since it is only checked once per class.
+ * Event filters which change at runtime should not be used with a frozen dispatcher.<br>
+ * If a {@link ReentrancyPolicy} is set, the events are passed to it and called with the call chains of this dispatcher.<br>
+ * <br>
+ * Registering or unregistering handlers at the manager does not change the dispatcher.
+ * Use {@link #thaw()} to get the manager, change the handlers and freeze it again.
+ */
+public class FrozenDispatcher {
+
+    private final LambdaManager manager;
+    private final Map<Class<?>, CallChain> callChains;
+    @Nullable
+    private final IEventFilter eventFilter;
+    private final boolean alwaysCallParents;
+    @Nullable
+    private final ReentrancyPolicy reentrancyPolicy;
+    private final ReentrancyPolicy.Dispatcher dispatcher = this::dispatch; //Don't create a new dispatcher for every call
+    private final ClassValue<Chains> chains = new ClassValue<Chains>() {
+        @Override
+        protected Chains computeValue(final Class<?> type) {
+            return FrozenDispatcher.this.resolve(type);
+        }
+    };
+
+    FrozenDispatcher(final LambdaManager manager, final Map<Class<?>, CallChain> callChains,
+                     @Nullable final IEventFilter eventFilter, final boolean alwaysCallParents, @Nullable final ReentrancyPolicy reentrancyPolicy) {
+        this.manager = manager;
+        this.callChains = callChains;
+        this.eventFilter = eventFilter;
+        this.alwaysCallParents = alwaysCallParents;
+        this.reentrancyPolicy = reentrancyPolicy;
+    }
+
+    /**
+     * Get the manager to change the handlers.<br>
+     * The changes are not visible to this dispatcher, call {@link LambdaManager#freeze()} again afterwards.
+     *
+     * @return The manager which was frozen
+     */
+    @Nonnull
+    public LambdaManager thaw() {
+        return this.manager;
+    }
+
+    /**
+     * Call all handlers for the given event.<br>
+     * This respects {@link LambdaManager#setAlwaysCallParents(boolean)} in the same way as {@link LambdaManager#call(Object)}.
+     *
+     * @param event The event instance
+     * @param <T>   The event type
+     * @return The given event instance
+     */
+    @Nonnull
+    public <T> T call(final T event) {
+        this.call(this.chains.get(event.getClass()).call, event, this.alwaysCallParents);
+        return event;
+    }
+
+    /**
+     * Call all handlers for the given event and all parent classes of the event (including interfaces).
+     *
+     * @param event The event instance
+     * @param <T>   The event type
+     * @return The given event instance
+     */
+    @Nonnull
+    public <T> T callParents(final T event) {
+        this.call(this.chains.get(event.getClass()).parents, event, true);
+        return event;
+    }
+
+    /**
+     * Call all handlers for the given event class if there are any.<br>
+     * The event instance is only created if at least one handler is registered.
+     * The supplier has to return an instance of exactly the given class.
+     *
+     * @param event         The event class
+     * @param eventSupplier The supplier which creates the event instance
+     * @param <T>           The event type
+     * @return The created event instance or {@code null} if no handler is registered
+     */
+    @Nullable
+    public <T> T call(final Class<T> event, final Supplier<? extends T> eventSupplier) {
+        CallChain[] segments = this.chains.get(event).call;
+        if (segments.length == 0) return null; //No handlers registered, don't create the event
+        T instance = eventSupplier.get();
+        this.call(segments, instance, this.alwaysCallParents);
+        return instance;
+    }
+
+    /**
+     * Check if any handler would be called for the given event class.<br>
+     * This respects {@link LambdaManager#setAlwaysCallParents(boolean)} and the event filter in the same way as {@link LambdaManager#hasHandlers(Class)}.
+     *
+     * @param event The event class
+     * @return If there is at least one handler registered for the event
+     */
+    public boolean hasHandlers(final Class<?> event) {
+        return this.chains.get(event).call.length != 0;
+    }
+
+    private void call(final CallChain[] segments, final Object event, final boolean parents) {
+        if (this.reentrancyPolicy != null) {
+            //The reentrancy policy calls the event later if it is deferred, the call chains are resolved again from the snapshot
+            if (segments.length != 0) this.reentrancyPolicy.call(this.dispatcher, event.getClass(), event, parents);
+        } else {
+            this.call(segments, event);
+        }
+    }
+
+    private void dispatch(final Class<?> clazz, final Object event, final boolean parents) {
+        Chains chains = this.chains.get(clazz);
+        this.call(parents ? chains.parents : chains.call, event);
+    }
+
+    private void call(final CallChain[] segments, final Object event) {
+        if (segments.length == 1) {
+            //Most events only have handlers for a single class, calling them without a loop allows the JIT to optimize the call chain better
+            this.manager.call(segments[0], event);
+        } else {
+            for (CallChain segment : segments) this.manager.call(segment, event);
+        }
+    }
+
+    private Chains resolve(final Class<?> event) {
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return Chains.EMPTY;
+        CallChain[] exact = this.getCallChains(new Class<?>[]{event});
+        Set<Class<?>> parentClasses = new LinkedHashSet<>();
+        EventUtils.getSuperClasses(parentClasses, event);
+        CallChain[] parents = this.getCallChains(parentClasses.toArray(new Class[0]));
+        return new Chains(this.alwaysCallParents ? parents : exact, parents);
+    }
+
+    private CallChain[] getCallChains(final Class<?>[] events) {
+        List<CallChain> segments = new ArrayList<>();
+        for (Class<?> event : events) {
+            CallChain chain = this.callChains.get(event);
+            if (chain != null) segments.add(chain);
+        }
+        return segments.toArray(new CallChain[0]);
+    }
+
+
+    /**
+     * The resolved call chains of an event class.
+     */
+    private static class Chains {
+        private static final Chains EMPTY = new Chains(new CallChain[0], new CallChain[0]);
+
+        private final CallChain[] call;
+        private final CallChain[] parents;
+
+        private Chains(final CallChain[] call, final CallChain[] parents) {
+            this.call = call;
+            this.parents = parents;
+        }
+    }
+
+}
@@ -1,23 +1,28 @@
 package net.lenni0451.lambdaevents;
 
-import net.lenni0451.lambdaevents.handler.ConsumerHandler;
-import net.lenni0451.lambdaevents.handler.RunnableHandler;
+import net.lenni0451.lambdaevents.guard.Guard;
+import net.lenni0451.lambdaevents.guard.GuardSet;
+import net.lenni0451.lambdaevents.handler.*;
 import net.lenni0451.lambdaevents.types.ICancellableEvent;
+import net.lenni0451.lambdaevents.types.IKeyedEvent;
+import net.lenni0451.lambdaevents.utils.ClassFileScanner;
+import net.lenni0451.lambdaevents.utils.ClassIndexMap;
 import net.lenni0451.lambdaevents.utils.EventUtils;
+import net.lenni0451.lambdaevents.utils.LookupUtils;
+import net.lenni0451.lambdaevents.utils.ParentsCache;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.BiPredicate;
-import java.util.function.Consumer;
-import java.util.function.Predicate;
-import java.util.function.Supplier;
+import java.util.function.*;
+import java.util.stream.Collectors;
 
 public class LambdaManager {
 
@@ -43,10 +48,24 @@ public class LambdaManager {
         return new LambdaManager(ConcurrentHashMap::new, CopyOnWriteArrayList::new, generator);
     }
 
+    /**
+     * Create a new {@link LambdaManager} instance using a {@link ClassIndexMap} and {@link CopyOnWriteArrayList}.<br>
+     * Every registered event class gets a small integer id which is used to index the handler table instead of hashing the class.<br>
+     * The ids belong to the manager and are reused after all handlers of an event were unregistered.<br>
+     * This implementation is thread safe and meant for a small set of event types.
+     *
+     * @param generator The {@link IGenerator} implementation which should be used
+     * @return The new {@link LambdaManager} instance
+     */
+    public static LambdaManager indexed(final IGenerator generator) {
+        return new LambdaManager(ClassIndexMap::new, CopyOnWriteArrayList::new, generator);
+    }
+
 
     private final Map<Class<?>, List<AHandler>> handlers;
-    private final Map<Class<?>, AHandler[]> handlerArrays;
-    private final Map<Class<?>, Class<?>[]> parentsCache;
+    private final Map<Class<?>, CallChain> callChains;
+    private volatile BatchHandler[] batchHandlers = new BatchHandler[0];
+    private final ParentsCache parentsCache = new ParentsCache();
     private final Supplier<List<AHandler>> listSupplier;
     private final IGenerator generator;
 
@@ -54,7 +73,12 @@ public class LambdaManager {
     private IEventFilter eventFilter = null;
     private IExceptionHandler exceptionHandler = IExceptionHandler.infoPrint();
     private boolean registerSuperHandler = false;
+    private boolean scanClassFiles = false;
     private boolean alwaysCallParents = false;
+    @Nullable
+    private ReentrancyPolicy reentrancyPolicy = null;
+    private MethodHandles.Lookup guardLookup = MethodHandles.lookup();
+    private final ReentrancyPolicy.Dispatcher dispatcher = this::dispatch; //Don't create a new dispatcher for every call
 
     /**
      * @param mapSupplier  The supplier for the maps used to store the event to handler mappings
@@ -63,8 +87,7 @@ public class LambdaManager {
      */
     public LambdaManager(final Supplier<Map> mapSupplier, final Supplier<List<AHandler>> listSupplier, final IGenerator generator) {
         this.handlers = mapSupplier.get();
-        this.handlerArrays = mapSupplier.get();
-        this.parentsCache = mapSupplier.get();
+        this.callChains = mapSupplier.get();
         this.listSupplier = listSupplier;
         this.generator = generator;
     }
@@ -105,6 +128,20 @@ public class LambdaManager {
         return this;
     }
 
+    /**
+     * Find event handlers by reading the class files of the owners instead of reflecting all their members.<br>
+     * This reduces the registration time of classes with a lot of members or super classes without event handlers.<br>
+     * <b>The class files have to match the loaded classes, this should not be used if listener classes are transformed at runtime!</b>
+     *
+     * @param scanClassFiles If the class files should be read to find event handlers
+     * @return The current {@link LambdaManager} instance
+     * @see ClassFileScanner
+     */
+    public LambdaManager setScanClassFiles(final boolean scanClassFiles) {
+        this.scanClassFiles = scanClassFiles;
+        return this;
+    }
+
     /**
      * Always call all event handlers for parent classes of the event (including interfaces).<br>
      * Basically a redirect from {@link #call(Object)} to {@link #callParents(Object)}.
@@ -117,6 +154,73 @@ public class LambdaManager {
         return this;
     }
 
+    /**
+     * Limit the amount of event classes for which the parents are cached.<br>
+     * This is useful if event classes are generated at runtime and {@link #callParents(Object)} is used.<br>
+     * The parents cache never prevents event classes from being unloaded.
+     *
+     * @param maxSize The maximum amount of cached event classes or {@code 0} for no limit
+     * @return The current {@link LambdaManager} instance
+     */
+    public LambdaManager setParentsCacheSize(final int maxSize) {
+        this.parentsCache.setMaxSize(maxSize);
+        return this;
+    }
+
+    /**
+     * Get the cache used to store the parent classes of called events.<br>
+     * It can be used to get hit, miss and eviction statistics.
+     *
+     * @return The parents cache
+     */
+    public ParentsCache getParentsCache() {
+        return this.parentsCache;
+    }
+
+    /**
+     * Set the policy for events which are called from inside event handlers.<br>
+     * By default nested events are called immediately without any depth limit.<br>
+     * The policy applies to {@link #call(Object)}, {@link #callParents(Object)} and their lazy variants.
+     *
+     * @param reentrancyPolicy The {@link ReentrancyPolicy} or {@code null} to disable it
+     * @return The current {@link LambdaManager} instance
+     */
+    public LambdaManager setReentrancyPolicy(@Nullable final ReentrancyPolicy reentrancyPolicy) {
+        this.reentrancyPolicy = reentrancyPolicy;
+        return this;
+    }
+
+    /**
+     * Set the {@link MethodHandles.Lookup} which is used to access the predicate methods and state members of guards.<br>
+     * The lookup is resolved using {@link LookupUtils} like in the generators. By default only public members can be used as guards.
+     * Pass a lookup with access to the members (e.g. {@code MethodHandles.lookup()} in the event class) to use private members.<br>
+     * This only affects handlers which are registered afterwards.
+     *
+     * @param guardLookup The lookup to use
+     * @return The current {@link LambdaManager} instance
+     * @see EventHandler#guards()
+     * @see EventHandler#requireState()
+     */
+    public LambdaManager setGuardLookup(final MethodHandles.Lookup guardLookup) {
+        this.guardLookup = guardLookup;
+        return this;
+    }
+
+    /**
+     * Freeze the currently registered handlers into a {@link FrozenDispatcher}.<br>
+     * The dispatcher calls events like this manager but uses immutable call chains which are resolved once per event class.<br>
+     * Changes to this manager are not visible to the dispatcher, freeze the manager again to get a dispatcher with the new handlers.
+     *
+     * @return The frozen dispatcher
+     */
+    @Nonnull
+    public FrozenDispatcher freeze() {
+        synchronized (this.handlers) {
+            //The call chains are never modified, they are replaced when the handlers change
+            return new FrozenDispatcher(this, new HashMap<>(this.callChains), this.eventFilter, this.alwaysCallParents, this.reentrancyPolicy);
+        }
+    }
+
 
     /**
      * Call all handlers for the given event.
@@ -129,7 +233,7 @@ public class LambdaManager {
     public <T> T call(final T event) {
         if (this.alwaysCallParents) return this.callParents(event); //Redirect to callParents() if alwaysCallParents is true
         if (this.eventFilter != null && !this.eventFilter.check(event.getClass(), IEventFilter.CheckType.CALL)) return event;
-        this.call(event.getClass(), event);
+        this.dispatchEvent(event.getClass(), event, false);
         return event;
     }
 
@@ -144,27 +248,341 @@ public class LambdaManager {
     @Nonnull
     public <T> T callParents(final T event) {
         if (this.eventFilter != null && !this.eventFilter.check(event.getClass(), IEventFilter.CheckType.CALL)) return event;
-        for (Class<?> clazz : this.parentsCache.computeIfAbsent(event.getClass(), clazz -> {
-            //Calculate all parent classes and interfaces and cache them
-            Set<Class<?>> parents = new LinkedHashSet<>();
-            EventUtils.getSuperClasses(parents, clazz);
-            return parents.toArray(new Class[0]);
-        })) {
+        this.dispatchEvent(event.getClass(), event, true);
+        return event;
+    }
+
+    /**
+     * Call all handlers for the given event class if there are any.<br>
+     * The event instance is only created if at least one handler is registered.
+     * The supplier has to return an instance of exactly the given class.
+     *
+     * @param event         The event class
+     * @param eventSupplier The supplier which creates the event instance
+     * @param <T>           The event type
+     * @return The created event instance or {@code null} if no handler is registered
+     */
+    @Nullable
+    public <T> T call(final Class<T> event, final Supplier<? extends T> eventSupplier) {
+        if (this.alwaysCallParents) return this.callParents(event, eventSupplier); //Redirect to callParents() if alwaysCallParents is true
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return null;
+        if (this.callChains.get(event) == null) return null; //No handlers registered, don't create the event
+        T instance = eventSupplier.get();
+        this.dispatchEvent(event, instance, false);
+        return instance;
+    }
+
+    /**
+     * Call all handlers for the given keyed event class if any handler would be called for the given key.<br>
+     * The event instance is only created if at least one unkeyed handler or handler for the key is registered.
+     * The supplier has to return an instance of exactly the given class with the given key.<br>
+     * This respects {@link #setAlwaysCallParents(boolean)} and the event filter in the same way as {@link #call(Class, Supplier)}.
+     *
+     * @param event         The keyed event class
+     * @param key           The key of the event
+     * @param eventSupplier The supplier which creates the event instance
+     * @param <T>           The event type
+     * @return The created event instance or {@code null} if no handler would be called
+     */
+    @Nullable
+    public <T extends IKeyedEvent> T call(final Class<T> event, final Object key, final Supplier<? extends T> eventSupplier) {
+        if (!this.hasHandlers(event, key)) return null; //No handlers for the key, don't create the event
+        T instance = eventSupplier.get();
+        this.dispatchEvent(event, instance, this.alwaysCallParents);
+        return instance;
+    }
+
+    /**
+     * Call all handlers for the given event class and all parent classes of the event (including interfaces) if there are any.<br>
+     * The event instance is only created if at least one handler is registered.
+     * The supplier has to return an instance of exactly the given class.
+     *
+     * @param event         The event class
+     * @param eventSupplier The supplier which creates the event instance
+     * @param <T>           The event type
+     * @return The created event instance or {@code null} if no handler is registered
+     */
+    @Nullable
+    public <T> T callParents(final Class<T> event, final Supplier<? extends T> eventSupplier) {
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return null;
+        Class<?>[] parents = this.getParents(event);
+        if (!this.hasHandlers(parents)) return null; //No handlers registered, don't create the event
+        T instance = eventSupplier.get();
+        this.dispatchEvent(event, instance, true);
+        return instance;
+    }
+
+    /**
+     * Call all handlers for the given events of the same class.<br>
+     * The call chain is only looked up once for all events, the events are called in the order of the array.<br>
+     * This respects {@link #setAlwaysCallParents(boolean)} and the event filter in the same way as {@link #call(Object)}.
+     * If a {@link ReentrancyPolicy} is set, the events are passed to it one by one.
+     *
+     * @param event  The class of all events
+     * @param events The event instances
+     * @param offset The index of the first event
+     * @param length The amount of events
+     */
+    public void callBatch(final Class<?> event, final Object[] events, final int offset, final int length) {
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return;
+        int end = offset + length;
+        if (this.reentrancyPolicy != null) {
+            for (int i = offset; i < end; i++) this.dispatchEvent(event, events[i], this.alwaysCallParents);
+        } else if (this.alwaysCallParents) {
+            Class<?>[] parents = this.getParents(event);
+            CallChain[] chains = new CallChain[parents.length];
+            for (int i = 0; i < parents.length; i++) chains[i] = this.callChains.get(parents[i]);
+            for (int i = offset; i < end; i++) {
+                for (CallChain chain : chains) {
+                    if (chain != null) this.call(chain, events[i]);
+                }
+            }
+        } else {
+            CallChain chain = this.callChains.get(event);
+            if (chain == null) return; //No handlers registered for this event
+            for (int i = offset; i < end; i++) this.call(chain, events[i]);
+        }
+    }
+
+    /**
+     * Pass the collected events of all batch handlers to the handlers.<br>
+     * The batch handlers are flushed in the order of their priority.
+     * If a handler throws an exception, the exception handler is called with the list or array of events.<br>
+     * {@link TickDispatcher#flush()} calls this after all buffered events were called.
+     *
+     * @see EventHandler#batch()
+     */
+    public void flushBatches() {
+        for (BatchHandler handler : this.batchHandlers) handler.flush(this.exceptionHandler);
+    }
+
+    /**
+     * Check if any handler would be called for the given event class.<br>
+     * This respects {@link #setAlwaysCallParents(boolean)} and the event filter in the same way as {@link #call(Object)}.<br>
+     * Useful to skip creating expensive events if nobody is listening.
+     * Keyed handlers are counted for every key, use {@link #hasHandlers(Class, Object)} to check a single key.
+     *
+     * @param event The event class
+     * @return If there is at least one handler registered for the event
+     */
+    public boolean hasHandlers(final Class<?> event) {
+        if (this.alwaysCallParents) return this.hasParentHandlers(event);
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return false;
+        return this.callChains.get(event) != null;
+    }
+
+    /**
+     * Check if any handler would be called for a keyed event of the given class with the given key.<br>
+     * Only unkeyed handlers and handlers registered for the key are counted.
+     * This respects {@link #setAlwaysCallParents(boolean)} and the event filter in the same way as {@link #call(Object)}.
+     *
+     * @param event The keyed event class
+     * @param key   The key of the event
+     * @return If there is at least one handler which would be called
+     */
+    public boolean hasHandlers(final Class<? extends IKeyedEvent> event, final Object key) {
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return false;
+        Class<?>[] events = this.alwaysCallParents ? this.getParents(event) : new Class<?>[]{event};
+        for (Class<?> clazz : events) {
+            CallChain chain = this.callChains.get(clazz);
+            if (chain != null && chain.getKeyedHandlers(key).length != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if any handler would be called for the given event class or any of its parent classes (including interfaces).<br>
+     * This respects the event filter in the same way as {@link #callParents(Object)}.
+     *
+     * @param event The event class
+     * @return If there is at least one handler registered for the event or its parent classes
+     */
+    public boolean hasParentHandlers(final Class<?> event) {
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return false;
+        return this.hasHandlers(this.getParents(event));
+    }
+
+    /**
+     * Call all handlers for the given event type without creating an event instance.<br>
+     * This only works if all handlers of the event are virtual (handler methods without parameter, {@link Runnable} handlers)
+     * and have no guards. The handlers of parent classes are not called.<br>
+     * The event type is passed as the event object to the {@link IExceptionHandler}.
+     *
+     * @param event The event type
+     * @throws IllegalStateException If a handler of the event requires an event instance
+     */
+    public void callVirtual(final Class<?> event) {
+        if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.CALL)) return;
+        CallChain chain = this.callChains.get(event);
+        if (chain == null) return; //No handlers registered for this event
+        AHandler[] handlers = chain.getHandlers();
+        for (AHandler handler : handlers) {
+            //Check all handlers before calling the first one
+            if (!handler.isVirtual() || handler.getGuardSet() != null) {
+                throw new IllegalStateException("The handler '" + handler + "' for event '" + event.getName() + "' requires an event instance");
+            }
+        }
+        for (AHandler handler : handlers) {
+            try {
+                handler.call(event);
+            } catch (StopCall ignored) {
+                return; //Stop calling the following handlers
+            } catch (Throwable t) {
+                this.exceptionHandler.handle(handler, event, t); //The handler threw an exception, handle it and continue
+            }
+        }
+    }
+
+    /**
+     * Call all handlers of the given primitive channel with the given value.<br>
+     * {@link IntConsumer} handlers are called without boxing the value, {@link LongConsumer} and {@link DoubleConsumer} handlers with the converted value.
+     * All other handlers of the channel are called with the boxed value, which is only created if such a handler exists.<br>
+     * Only the handlers of the exact channel class are called. {@link #setAlwaysCallParents(boolean)} and the {@link ReentrancyPolicy} are ignored,
+     * the event filter is respected.
+     *
+     * @param channel The channel class
+     * @param value   The value
+     */
+    public void callInt(final Class<?> channel, final int value) {
+        this.callChannel(channel, int.class, value, value, value);
+    }
+
+    /**
+     * Call all handlers of the given primitive channel with the given value.<br>
+     * {@link LongConsumer} handlers are called without boxing the value, {@link IntConsumer} and {@link DoubleConsumer} handlers with the converted value.
+     * All other handlers of the channel are called with the boxed value, which is only created if such a handler exists.<br>
+     * Only the handlers of the exact channel class are called. {@link #setAlwaysCallParents(boolean)} and the {@link ReentrancyPolicy} are ignored,
+     * the event filter is respected.
+     *
+     * @param channel The channel class
+     * @param value   The value
+     */
+    public void callLong(final Class<?> channel, final long value) {
+        this.callChannel(channel, long.class, (int) value, value, value);
+    }
+
+    /**
+     * Call all handlers of the given primitive channel with the given value.<br>
+     * {@link DoubleConsumer} handlers are called without boxing the value, {@link IntConsumer} and {@link LongConsumer} handlers with the converted value.
+     * All other handlers of the channel are called with the boxed value, which is only created if such a handler exists.<br>
+     * Only the handlers of the exact channel class are called. {@link #setAlwaysCallParents(boolean)} and the {@link ReentrancyPolicy} are ignored,
+     * the event filter is respected.
+     *
+     * @param channel The channel class
+     * @param value   The value
+     */
+    public void callDouble(final Class<?> channel, final double value) {
+        this.callChannel(channel, double.class, (int) value, (long) value, value);
+    }
+
+    private void callChannel(final Class<?> channel, final Class<?> type, final int intValue, final long longValue, final double doubleValue) {
+        if (this.eventFilter != null && !this.eventFilter.check(channel, IEventFilter.CheckType.CALL)) return;
+        CallChain chain = this.callChains.get(channel);
+        if (chain == null) return; //No handlers registered for this channel
+        Object boxed = null;
+        for (AHandler handler : chain.getHandlers()) {
+            try {
+                if (handler instanceof PrimitiveHandler) {
+                    ((PrimitiveHandler<?>) handler).callPrimitive(intValue, longValue, doubleValue);
+                } else {
+                    if (boxed == null) boxed = box(type, intValue, longValue, doubleValue); //Only box the value if a handler requires an object
+                    if (this.testGuards(handler, boxed)) handler.call(boxed);
+                }
+            } catch (StopCall ignored) {
+                return; //Stop calling the following handlers
+            } catch (Throwable t) {
+                //The handler threw an exception, handle it and continue
+                this.exceptionHandler.handle(handler, boxed == null ? box(type, intValue, longValue, doubleValue) : boxed, t);
+            }
+        }
+    }
+
+    private static Object box(final Class<?> type, final int intValue, final long longValue, final double doubleValue) {
+        if (type == int.class) return intValue;
+        else if (type == long.class) return longValue;
+        else return doubleValue;
+    }
+
+    private boolean hasHandlers(final Class<?>[] events) {
+        for (Class<?> event : events) {
+            if (this.callChains.get(event) != null) return true;
+        }
+        return false;
+    }
+
+    Class<?>[] getParents(final Class<?> event) {
+        return this.parentsCache.get(event);
+    }
+
+    void dispatchEvent(final Class<?> clazz, final Object event, final boolean parents) {
+        ReentrancyPolicy reentrancyPolicy = this.reentrancyPolicy;
+        if (reentrancyPolicy == null) this.dispatch(clazz, event, parents);
+        else reentrancyPolicy.call(this.dispatcher, clazz, event, parents);
+    }
+
+    void dispatch(final Class<?> clazz, final Object event, final boolean parents) {
+        if (parents) {
+            for (Class<?> parent : this.getParents(clazz)) {
+                this.call(parent, event);
+            }
+        } else {
             this.call(clazz, event);
         }
-        return event;
+    }
+
+    private boolean testGuards(final AHandler handler, final Object event) {
+        for (Guard guard : handler.getGuards()) {
+            if (!guard.test(event)) return false;
+        }
+        return true;
     }
 
     private <T> void call(final Class<?> clazz, final T event) {
-        AHandler[] handlers = this.handlerArrays.get(clazz);
-        if (handlers == null) return; //No handlers registered for this event
+        CallChain chain = this.callChains.get(clazz);
+        if (chain == null) return; //No handlers registered for this event
+        this.call(chain, event);
+    }
+
+    <T> void call(final CallChain chain, final T event) {
+        //Keyed events use the call chain containing the handlers for the event key and all unkeyed handlers
+        AHandler[] handlers = chain.getHandlers(event);
         ICancellableEvent cancellable = event instanceof ICancellableEvent ? (ICancellableEvent) event : null;
+        //The guard results are cached for this call, so guards shared by multiple handlers are only evaluated once
+        Guard[] guardTable = null;
+        long pureGuards = 0;
+        long evaluatedGuards = 0;
+        long passedGuards = 0;
         for (AHandler handler : handlers) {
             if (cancellable != null && !handler.shouldHandleCancelled() && cancellable.isCancelled()) {
                 //Skip the handler if the event is cancelled
                 continue;
             }
             try {
+                GuardSet guardSet = handler.getGuardSet();
+                if (guardSet != null) {
+                    if (guardSet.getTable() != guardTable) {
+                        //The handler uses another guard table (the call chain was changed), the cached results are invalid
+                        guardTable = guardSet.getTable();
+                        pureGuards = guardSet.getPureMask();
+                        evaluatedGuards = 0;
+                        passedGuards = 0;
+                    }
+                    long mask = guardSet.getMask();
+                    if ((evaluatedGuards & ~passedGuards & mask) != 0) continue; //A required guard already failed
+                    long missing = mask & ~evaluatedGuards;
+                    while (missing != 0) {
+                        //Evaluate the guards which were not required by any previous handler
+                        long bit = Long.lowestOneBit(missing);
+                        missing &= ~bit;
+                        evaluatedGuards |= bit;
+                        if (guardTable[Long.numberOfTrailingZeros(bit)].test(event)) passedGuards |= bit;
+                        else break;
+                    }
+                    if ((passedGuards & mask) != mask) continue; //Skip the handler if a guard failed
+                }
+                //The handler could change the state of the event, only the results of pure guards stay valid
+                evaluatedGuards &= pureGuards;
+                passedGuards &= pureGuards;
                 handler.call(event);
             } catch (StopCall ignored) {
                 return; //Stop calling the following handlers
@@ -234,6 +652,27 @@ public class LambdaManager {
         this.register(event, owner.getClass(), owner, false, true);
     }
 
+    /**
+     * Register the event handlers of all given owners.<br>
+     * {@link Class} instances are registered like {@link #register(Class)} and all other objects like {@link #register(Object)}.<br>
+     * The owners are scanned and the handlers are generated in parallel (using the common {@link java.util.concurrent.ForkJoinPool}).
+     * Afterwards all handlers are added in the order of the owners, so the result is the same as registering them one by one.
+     * The call chain of every event is only rebuilt once.<br>
+     * If any owner fails to register, no handlers are added at all.<br>
+     * The event filter and the generator have to be thread safe when using this method.
+     *
+     * @param owners The classes and objects which should be registered
+     */
+    public void registerAll(final Collection<?> owners) {
+        List<List<ScannedHandler>> scanned = owners.parallelStream().map(owner -> {
+            if (owner instanceof Class) return this.scan(null, (Class<?>) owner, null, true, false);
+            else return this.scan(null, owner.getClass(), owner, false, this.registerSuperHandler);
+        }).collect(Collectors.toList());
+        List<ScannedHandler> handlers = new ArrayList<>();
+        for (List<ScannedHandler> ownerHandlers : scanned) handlers.addAll(ownerHandlers);
+        this.addHandlers(handlers);
+    }
+
     /**
      * Register a {@link Runnable} as an event handler for the given events.
      *
@@ -258,7 +697,9 @@ public class LambdaManager {
                 if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.EXPLICIT_REGISTER)) continue;
                 //Add a new RunnableHandler for each event
                 List<AHandler> handlers = this.handlers.computeIfAbsent(event, (key) -> this.listSupplier.get());
-                handlers.add(new RunnableHandler(runnable.getClass(), runnable, EventUtils.newEventHandler(priority), runnable));
+                AHandler handler = new RunnableHandler(runnable.getClass(), runnable, EventUtils.newEventHandler(priority), runnable);
+                handler.setVirtual(true);
+                handlers.add(handler);
                 this.checkCallChain(event, handlers);
             }
         }
@@ -298,6 +739,119 @@ public class LambdaManager {
         }
     }
 
+    /**
+     * Register a {@link Consumer} as an event handler for the given keyed event.<br>
+     * The {@link Consumer} is only called if the {@link IKeyedEvent#getEventKey() key} of the event equals the given key.<br>
+     * Handlers for other keys are not called at all, which is much faster than filtering inside the handler.
+     *
+     * @param event    The keyed event class
+     * @param key      The key the event has to match
+     * @param consumer The {@link Consumer} which should be registered
+     * @param <T>      The event type
+     * @throws IllegalArgumentException If the event class does not implement {@link IKeyedEvent}
+     */
+    public <T extends IKeyedEvent> void registerKeyed(final Class<T> event, final Object key, final Consumer<? super T> consumer) {
+        this.registerKeyed(event, key, 0, consumer);
+    }
+
+    /**
+     * Register a {@link Consumer} as an event handler for the given keyed event with the given priority.<br>
+     * The {@link Consumer} is only called if the {@link IKeyedEvent#getEventKey() key} of the event equals the given key.<br>
+     * Handlers for other keys are not called at all, which is much faster than filtering inside the handler.
+     *
+     * @param event    The keyed event class
+     * @param key      The key the event has to match
+     * @param priority The priority of the {@link Consumer}
+     * @param consumer The {@link Consumer} which should be registered
+     * @param <T>      The event type
+     * @throws IllegalArgumentException If the event class does not implement {@link IKeyedEvent}
+     */
+    public <T extends IKeyedEvent> void registerKeyed(final Class<T> event, final Object key, final int priority, final Consumer<? super T> consumer) {
+        if (!IKeyedEvent.class.isAssignableFrom(event)) throw new IllegalArgumentException("Event '" + event.getName() + "' does not implement IKeyedEvent");
+        Objects.requireNonNull(key, "key");
+        synchronized (this.handlers) {
+            if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.EXPLICIT_REGISTER)) return;
+            List<AHandler> handlers = this.handlers.computeIfAbsent(event, (k) -> this.listSupplier.get());
+            handlers.add(new KeyedHandler(consumer.getClass(), consumer, EventUtils.newEventHandler(priority), consumer, key));
+            this.checkCallChain(event, handlers);
+        }
+    }
+
+    /**
+     * Register an {@link IntConsumer} as a handler for the given primitive channel.<br>
+     * The channel is an arbitrary class which is used to identify the channel. Values are passed using {@link #callInt(Class, int)} without boxing.<br>
+     * The consumer can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param channel  The channel class
+     * @param consumer The {@link IntConsumer} which should be registered
+     */
+    public void registerIntConsumer(final Class<?> channel, final IntConsumer consumer) {
+        this.registerIntConsumer(channel, 0, consumer);
+    }
+
+    /**
+     * Register an {@link IntConsumer} as a handler for the given primitive channel with the given priority.<br>
+     * The channel is an arbitrary class which is used to identify the channel. Values are passed using {@link #callInt(Class, int)} without boxing.<br>
+     * The consumer can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param channel  The channel class
+     * @param priority The priority of the {@link IntConsumer}
+     * @param consumer The {@link IntConsumer} which should be registered
+     */
+    public void registerIntConsumer(final Class<?> channel, final int priority, final IntConsumer consumer) {
+        this.registerChannel(channel, new IntConsumerHandler(consumer.getClass(), consumer, EventUtils.newEventHandler(priority), consumer));
+    }
+
+    /**
+     * Register a {@link LongConsumer} as a handler for the given primitive channel.<br>
+     * The channel is an arbitrary class which is used to identify the channel. Values are passed using {@link #callLong(Class, long)} without boxing.<br>
+     * The consumer can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param channel  The channel class
+     * @param consumer The {@link LongConsumer} which should be registered
+     */
+    public void registerLongConsumer(final Class<?> channel, final LongConsumer consumer) {
+        this.registerLongConsumer(channel, 0, consumer);
+    }
+
+    /**
+     * Register a {@link LongConsumer} as a handler for the given primitive channel with the given priority.<br>
+     * The channel is an arbitrary class which is used to identify the channel. Values are passed using {@link #callLong(Class, long)} without boxing.<br>
+     * The consumer can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param channel  The channel class
+     * @param priority The priority of the {@link LongConsumer}
+     * @param consumer The {@link LongConsumer} which should be registered
+     */
+    public void registerLongConsumer(final Class<?> channel, final int priority, final LongConsumer consumer) {
+        this.registerChannel(channel, new LongConsumerHandler(consumer.getClass(), consumer, EventUtils.newEventHandler(priority), consumer));
+    }
+
+    /**
+     * Register a {@link DoubleConsumer} as a handler for the given primitive channel.<br>
+     * The channel is an arbitrary class which is used to identify the channel. Values are passed using {@link #callDouble(Class, double)} without boxing.<br>
+     * The consumer can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param channel  The channel class
+     * @param consumer The {@link DoubleConsumer} which should be registered
+     */
+    public void registerDoubleConsumer(final Class<?> channel, final DoubleConsumer consumer) {
+        this.registerDoubleConsumer(channel, 0, consumer);
+    }
+
+    /**
+     * Register a {@link DoubleConsumer} as a handler for the given primitive channel with the given priority.<br>
+     * The channel is an arbitrary class which is used to identify the channel. Values are passed using {@link #callDouble(Class, double)} without boxing.<br>
+     * The consumer can be unregistered using {@link #unregister(Object)}.
+     *
+     * @param channel  The channel class
+     * @param priority The priority of the {@link DoubleConsumer}
+     * @param consumer The {@link DoubleConsumer} which should be registered
+     */
+    public void registerDoubleConsumer(final Class<?> channel, final int priority, final DoubleConsumer consumer) {
+        this.registerChannel(channel, new DoubleConsumerHandler(consumer.getClass(), consumer, EventUtils.newEventHandler(priority), consumer));
+    }
+
     /**
      * <b>Deprecated! Please use {@link #registerRunnable(Runnable, Class[])} instead</b>
      */
@@ -330,71 +884,110 @@ public class LambdaManager {
         this.registerConsumer(consumer, priority, events);
     }
 
+    private void registerChannel(final Class<?> channel, final AHandler handler) {
+        synchronized (this.handlers) {
+            if (this.eventFilter != null && !this.eventFilter.check(channel, IEventFilter.CheckType.EXPLICIT_REGISTER)) return;
+            List<AHandler> handlers = this.handlers.computeIfAbsent(channel, (key) -> this.listSupplier.get());
+            handlers.add(handler);
+            this.checkCallChain(channel, handlers);
+        }
+    }
+
     private void register(@Nullable final Class<?> event, final Class<?> owner, @Nullable final Object instance, final boolean isStatic, final boolean registerSuperHandler) {
+        this.addHandlers(this.scan(event, owner, instance, isStatic, registerSuperHandler));
+    }
+
+    private List<ScannedHandler> scan(@Nullable final Class<?> event, final Class<?> owner, @Nullable final Object instance, final boolean isStatic, final boolean registerSuperHandler) {
+        List<ScannedHandler> scanned = new ArrayList<>();
         Predicate<Class<?>> eventFilter;
         if (event == null) {
             //Register all events
             eventFilter = e -> this.eventFilter == null || this.eventFilter.check(e, IEventFilter.CheckType.REGISTER);
         } else {
             //Only register the given event
-            if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.EXPLICIT_REGISTER)) return;
+            if (this.eventFilter != null && !this.eventFilter.check(event, IEventFilter.CheckType.EXPLICIT_REGISTER)) return scanned;
             eventFilter = e -> e.equals(event);
         }
 
-        for (EventUtils.MethodHandler handler : EventUtils.getMethods(owner, method -> Modifier.isStatic(method.getModifiers()) == isStatic, registerSuperHandler)) {
-            //Register all methods which handle the given event
+        for (EventUtils.MethodHandler handler : EventUtils.getMethods(owner, method -> Modifier.isStatic(method.getModifiers()) == isStatic, registerSuperHandler, this.scanClassFiles)) {
+            //Generate handlers for all methods which handle the given event
             EventHandler annotation = handler.getAnnotation();
             Method method = handler.getMethod();
             EventUtils.verify(handler.getOwner(), annotation, method); //Check if the method is a valid event handler
             for (Class<?> eventClass : EventUtils.getEvents(annotation, method, eventFilter)) {
-                //Go through all events which the method handles and register them
+                //Go through all events which the method handles and generate a handler for them
                 //Here 'virtual' means that the method does not take the event as a parameter
-                this.registerMethod(handler.getOwner(), instance, annotation, method, eventClass, method.getParameterCount() == 0);
+                scanned.add(new ScannedHandler(eventClass, this.generateMethodHandler(handler.getOwner(), instance, annotation, method, eventClass, method.getParameterCount() == 0)));
             }
         }
-        for (EventUtils.FieldHandler handler : EventUtils.getFields(owner, field -> Modifier.isStatic(field.getModifiers()) == isStatic, registerSuperHandler)) {
-            //Register all fields which handle the given event
+        for (EventUtils.FieldHandler handler : EventUtils.getFields(owner, field -> Modifier.isStatic(field.getModifiers()) == isStatic, registerSuperHandler, this.scanClassFiles)) {
+            //Create handlers for all fields which handle the given event
             EventHandler annotation = handler.getAnnotation();
             Field field = handler.getField();
             EventUtils.verify(handler.getOwner(), annotation, field); //Check if the field is a valid event handler
             for (Class<?> eventClass : EventUtils.getEvents(annotation, field, eventFilter)) {
-                //Go through all events which the field handles and register them
-                this.registerField(handler.getOwner(), instance, annotation, field, eventClass);
+                //Go through all events which the field handles and create a handler for them
+                scanned.add(new ScannedHandler(eventClass, this.createFieldHandler(handler.getOwner(), instance, annotation, field, eventClass)));
             }
         }
+        return scanned;
     }
 
-    private void registerMethod(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final Method method, final Class<?> event, final boolean virtual) {
-        synchronized (this.handlers) {
-            //Generate a new handler and add it to the list
-            List<AHandler> handlers = this.handlers.computeIfAbsent(event, (key) -> this.listSupplier.get());
-            AHandler handler;
-            if (virtual) handler = this.generator.generateVirtual(owner, instance, annotation, method); //Handler without parameter
-            else handler = this.generator.generate(owner, instance, annotation, method, event); //Handler with parameter
-            handlers.add(handler);
-            this.checkCallChain(event, handlers);
+    private AHandler generateMethodHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final Method method, final Class<?> event, final boolean virtual) {
+        Guard[] guards = EventUtils.getGuards(this.guardLookup, owner, annotation, event); //Resolve the guards before generating the handler
+        AHandler handler;
+        if (annotation.batch()) {
+            //Handler with a list or array parameter, the batch handler collects the events
+            Class<?> param = method.getParameterTypes()[0];
+            AHandler batchHandler = this.generator.generate(owner, instance, annotation, method, param);
+            handler = new BatchHandler(owner, instance, annotation, batchHandler, event, param.isArray() ? param.getComponentType() : null);
+        } else if (virtual) {
+            handler = this.generator.generateVirtual(owner, instance, annotation, method); //Handler without parameter
+        } else {
+            handler = this.generator.generate(owner, instance, annotation, method, event); //Handler with parameter
         }
+        if (handler instanceof TieredHandler) {
+            //Replace the tiered handler with the optimized handler in the call chain once it was upgraded
+            ((TieredHandler) handler).setUpgradeListener(upgraded -> this.replaceUpgraded(event, upgraded));
+        }
+        handler.setGuards(guards);
+        handler.setVirtual(virtual);
+        return handler;
     }
 
-    private void registerField(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final Field field, final Class<?> event) {
+    private AHandler createFieldHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final Field field, final Class<?> event) {
+        //Get the field value and create a new handler for it
+        Guard[] guards = EventUtils.getGuards(this.guardLookup, owner, annotation, event);
+        AHandler handler;
+        try {
+            if (Runnable.class.isAssignableFrom(field.getType())) handler = new RunnableHandler(owner, instance, annotation, (Runnable) field.get(instance)); //Runnable handler
+            else handler = new ConsumerHandler(owner, instance, annotation, (Consumer<?>) field.get(instance)); //Consumer handler
+            //The else block only receiving a Consumer is ensured by EventUtils.verify()
+        } catch (Throwable t) {
+            //Possible exception when getting the field value
+            throw new RuntimeException("Failed to register field '" + field.getName() + "' in class '" + owner.getName() + "'", t);
+        }
+        handler.setGuards(guards);
+        handler.setVirtual(handler instanceof RunnableHandler);
+        return handler;
+    }
+
+    private void addHandlers(final List<ScannedHandler> scanned) {
+        if (scanned.isEmpty()) return;
         synchronized (this.handlers) {
-            //Get the field value and create a new handler for it
-            List<AHandler> handlers = this.handlers.computeIfAbsent(event, (key) -> this.listSupplier.get());
-            AHandler handler;
-            try {
-                if (Runnable.class.isAssignableFrom(field.getType())) handler = new RunnableHandler(owner, instance, annotation, (Runnable) field.get(instance)); //Runnable handler
-                else handler = new ConsumerHandler(owner, instance, annotation, (Consumer<?>) field.get(instance)); //Consumer handler
-                //The else block only receiving a Consumer is ensured by EventUtils.verify()
-            } catch (Throwable t) {
-                //Possible exception when getting the field value
-                throw new RuntimeException("Failed to register field '" + field.getName() + "' in class '" + owner.getName() + "'", t);
+            //Add all handlers first, so the call chain of every event only has to be rebuilt once
+            Map<Class<?>, List<AHandler>> changed = new LinkedHashMap<>();
+            for (ScannedHandler handler : scanned) {
+                List<AHandler> handlers = this.handlers.computeIfAbsent(handler.event, (key) -> this.listSupplier.get());
+                handlers.add(handler.handler);
+                changed.put(handler.event, handlers);
+            }
+            for (Map.Entry<Class<?>, List<AHandler>> entry : changed.entrySet()) {
+                this.checkCallChain(entry.getKey(), entry.getValue());
             }
-            handlers.add(handler);
-            this.checkCallChain(event, handlers);
         }
     }
 
-
     /**
      * Unregister all static event handlers from the given class.
      *
@@ -551,6 +1144,22 @@ public class LambdaManager {
         }
     }
 
+    /**
+     * Unregister all keyed handlers for the given event and key.
+     *
+     * @param event The keyed event class
+     * @param key   The key the handlers were registered with
+     */
+    public void unregisterKeyed(final Class<?> event, final Object key) {
+        synchronized (this.handlers) {
+            List<AHandler> handlers = this.handlers.get(event);
+            if (handlers == null) return;
+            //Only remove KeyedHandlers which were registered with the given key
+            handlers.removeIf(handler -> handler instanceof KeyedHandler && ((KeyedHandler) handler).getKey().equals(key));
+            this.checkCallChain(event, handlers);
+        }
+    }
+
     /**
      * <b>Deprecated! Please use {@link #unregisterRunnable(Runnable)} instead</b>
      */
@@ -645,19 +1254,141 @@ public class LambdaManager {
         }
     }
 
+    /**
+     * Unregister all handlers which belong to the given {@link ClassLoader}.<br>
+     * This removes all handlers whose owner class, instance class or event class was loaded by the class loader.
+     * The call chain of every changed event is only rebuilt once.<br>
+     * Afterwards the lookup cached for the class loader is released, so the class loader can be garbage collected (e.g. when unloading a plugin).
+     *
+     * @param classLoader The class loader whose handlers should be unregistered
+     */
+    public void unregisterAll(final ClassLoader classLoader) {
+        synchronized (this.handlers) {
+            Map<Class<?>, List<AHandler>> checked = new HashMap<>();
+            for (Map.Entry<Class<?>, List<AHandler>> entry : this.handlers.entrySet()) {
+                List<AHandler> handlers = entry.getValue();
+                if (entry.getKey().getClassLoader() == classLoader) {
+                    //The event itself belongs to the class loader, remove the whole call chain
+                    handlers.clear();
+                    checked.put(entry.getKey(), handlers);
+                } else if (handlers.removeIf(handler -> this.isLoadedBy(handler, classLoader))) {
+                    checked.put(entry.getKey(), handlers);
+                }
+            }
+            for (Map.Entry<Class<?>, List<AHandler>> entry : checked.entrySet()) {
+                //Only redo the call chain of changed events
+                this.checkCallChain(entry.getKey(), entry.getValue());
+            }
+        }
+        LookupUtils.release(classLoader);
+    }
+
+
+    private boolean isLoadedBy(final AHandler handler, final ClassLoader classLoader) {
+        if (handler.getOwner().getClassLoader() == classLoader) return true;
+        return handler.getInstance() != null && handler.getInstance().getClass().getClassLoader() == classLoader;
+    }
+
+    private void replaceUpgraded(final Class<?> event, final TieredHandler handler) {
+        AHandler optimized = handler.getHandler();
+        optimized.setGuards(handler.getGuards());
+        optimized.setVirtual(handler.isVirtual());
+        synchronized (this.handlers) {
+            List<AHandler> handlers = this.handlers.get(event);
+            CallChain chain = this.callChains.get(event);
+            if (handlers == null || chain == null) return;
+            int index = handlers.indexOf(handler);
+            if (index < 0) return; //The handler was unregistered in the meantime
+            //The priority and guards don't change, so the handler is replaced in place without sorting the call chain again
+            optimized.setGuardSet(((AHandler) handler).getGuardSet()); //The guard set is package private, it is not visible through the subclass
+            handlers.set(index, optimized);
+            this.callChains.put(event, chain.replace(handler, optimized));
+        }
+    }
 
     private void checkCallChain(final Class<?> event, final List<AHandler> handlers) {
+        this.updateBatchHandlers(event, handlers);
         if (handlers.isEmpty()) {
             //If the handlers list is empty remove it from the handler maps
             this.handlers.remove(event);
-            this.handlerArrays.remove(event);
+            this.callChains.remove(event);
             return;
         } else if (handlers.size() > 1) {
             //Resort the handlers if there are more than one
             handlers.sort(Comparator.comparingInt((AHandler o) -> o.getAnnotation().priority()).reversed());
         }
-        //Update the handler array
-        this.handlerArrays.put(event, handlers.toArray(new AHandler[0]));
+        this.updateGuards(handlers);
+        Set<Object> keys = new HashSet<>();
+        for (AHandler handler : handlers) {
+            if (handler instanceof KeyedHandler) keys.add(((KeyedHandler) handler).getKey());
+        }
+        if (keys.isEmpty()) {
+            //Update the call chain
+            this.callChains.put(event, new CallChain(handlers.toArray(new AHandler[0]), null));
+            return;
+        }
+
+        //Split the handlers into one call chain for all unkeyed handlers and one for each key
+        //The call chains for the keys also contain all unkeyed handlers to keep the priority order
+        List<AHandler> unkeyedHandlers = new ArrayList<>();
+        Map<Object, List<AHandler>> keyedHandlers = new HashMap<>();
+        for (Object key : keys) keyedHandlers.put(key, new ArrayList<>());
+        for (AHandler handler : handlers) {
+            if (handler instanceof KeyedHandler) {
+                keyedHandlers.get(((KeyedHandler) handler).getKey()).add(handler);
+            } else {
+                unkeyedHandlers.add(handler);
+                for (List<AHandler> keyHandlers : keyedHandlers.values()) keyHandlers.add(handler);
+            }
+        }
+        Map<Object, AHandler[]> keyedHandlerArrays = new HashMap<>();
+        for (Map.Entry<Object, List<AHandler>> entry : keyedHandlers.entrySet()) {
+            keyedHandlerArrays.put(entry.getKey(), entry.getValue().toArray(new AHandler[0]));
+        }
+        //Publish the unkeyed and keyed call chains together
+        this.callChains.put(event, new CallChain(unkeyedHandlers.toArray(new AHandler[0]), keyedHandlerArrays));
+    }
+
+    private void updateBatchHandlers(final Class<?> event, final List<AHandler> handlers) {
+        //Only rebuild the batch handlers if the event had or has batch handlers
+        List<BatchHandler> batchHandlers = new ArrayList<>();
+        boolean changed = false;
+        for (BatchHandler handler : this.batchHandlers) {
+            if (handler.getEvent().equals(event)) changed = true;
+            else batchHandlers.add(handler);
+        }
+        for (AHandler handler : handlers) {
+            if (handler instanceof BatchHandler) {
+                batchHandlers.add((BatchHandler) handler);
+                changed = true;
+            }
+        }
+        if (!changed) return;
+        batchHandlers.sort(Comparator.comparingInt((AHandler o) -> o.getAnnotation().priority()).reversed());
+        this.batchHandlers = batchHandlers.toArray(new BatchHandler[0]);
+    }
+
+    private void updateGuards(final List<AHandler> handlers) {
+        //Collect all distinct guards of the call chain, every handler gets a mask of the guards it requires
+        Map<Guard, Integer> indices = new LinkedHashMap<>();
+        for (AHandler handler : handlers) {
+            for (Guard guard : handler.getGuards()) indices.putIfAbsent(guard, indices.size());
+        }
+        if (indices.isEmpty()) return;
+        Guard[] table = indices.keySet().toArray(Guard.NONE);
+        for (AHandler handler : handlers) {
+            Guard[] guards = handler.getGuards();
+            if (guards.length == 0) {
+                handler.setGuardSet(null);
+            } else if (table.length <= GuardSet.MAX_GUARDS) {
+                long mask = 0;
+                for (Guard guard : guards) mask |= 1L << indices.get(guard);
+                handler.setGuardSet(new GuardSet(table, mask));
+            } else {
+                //Too many guards to share them, every handler evaluates its own guards
+                handler.setGuardSet(new GuardSet(guards, guards.length == GuardSet.MAX_GUARDS ? -1L : (1L << guards.length) - 1));
+            }
+        }
     }
 
     /**
@@ -668,7 +1399,7 @@ public class LambdaManager {
     @Override
     public String toString() {
         StringBuilder out = new StringBuilder("LambdaManager{\n"); //Header of the debug output
-        for (Map.Entry<Class<?>, AHandler[]> entry : this.handlerArrays.entrySet()) {
+        for (Map.Entry<Class<?>, List<AHandler>> entry : this.handlers.entrySet()) {
             out.append("\t").append(entry.getKey().getName()).append("[\n"); //Name of the event class
             for (AHandler handler : entry.getValue()) out.append("\t\t").append(handler.toString()).append("\n"); //The handler toString() method
             out.append("\t]\n");
@@ -676,4 +1407,15 @@ public class LambdaManager {
         return out.append("}").toString();
     }
 
+
+    private static class ScannedHandler {
+        private final Class<?> event;
+        private final AHandler handler;
+
+        private ScannedHandler(final Class<?> event, final AHandler handler) {
+            this.event = event;
+            this.handler = handler;
+        }
+    }
+
 }
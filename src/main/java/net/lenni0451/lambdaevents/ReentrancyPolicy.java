@@ -0,0 +1,131 @@
+package net.lenni0451.lambdaevents;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * A policy for events which are called from inside event handlers.<br>
+ * The call depth is tracked per thread. A policy can be shared between multiple {@link LambdaManager} instances, the depth is then counted across all of them.<br>
+ * <br>
+ * Ordering when deferring events:<br>
+ * - A deferred event is not called immediately, the {@code call} method returns before any handler was called<br>
+ * - Deferred events are called after the outermost call on the current thread has finished, in the order they were deferred<br>
+ * - Events deferred by handlers of deferred events are added to the end of the queue<br>
+ * - If an exception is thrown out of a call (e.g. by a throwing {@link IExceptionHandler}), all deferred events of the current thread are dropped
+ */
+public final class ReentrancyPolicy {
+
+    /**
+     * Limit the call depth of nested events.<br>
+     * Calling an event deeper than the limit throws an {@link IllegalStateException} which is passed to the {@link IExceptionHandler} of the calling handler.
+     *
+     * @param maxDepth The maximum depth (1 means that no nested events are allowed)
+     * @return The reentrancy policy
+     */
+    public static ReentrancyPolicy depthLimit(final int maxDepth) {
+        return new ReentrancyPolicy(maxDepth, false);
+    }
+
+    /**
+     * Defer all events called from inside event handlers until the outer call has finished.
+     *
+     * @return The reentrancy policy
+     */
+    public static ReentrancyPolicy deferNested() {
+        return new ReentrancyPolicy(1, true);
+    }
+
+    /**
+     * Defer all events which are called deeper than the given depth until the outermost call has finished.<br>
+     * Nested events below the depth are called immediately.
+     *
+     * @param maxDepth The maximum depth of immediately called events
+     * @return The reentrancy policy
+     */
+    public static ReentrancyPolicy deferAbove(final int maxDepth) {
+        return new ReentrancyPolicy(maxDepth, true);
+    }
+
+
+    private final int maxDepth;
+    private final boolean defer;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    private ReentrancyPolicy(final int maxDepth, final boolean defer) {
+        if (maxDepth < 1) throw new IllegalArgumentException("The max depth has to be at least 1");
+        this.maxDepth = maxDepth;
+        this.defer = defer;
+    }
+
+    /**
+     * @return The maximum call depth
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * @return If events above the max depth are deferred instead of rejected
+     */
+    public boolean isDeferring() {
+        return this.defer;
+    }
+
+    void call(final Dispatcher dispatcher, final Class<?> clazz, final Object event, final boolean parents) {
+        State state = this.state.get();
+        if (state.depth >= this.maxDepth) {
+            if (!this.defer) throw new IllegalStateException("The max call depth of " + this.maxDepth + " was exceeded by event '" + clazz.getName() + "'");
+            state.queue.add(new Deferred(dispatcher, clazz, event, parents));
+            return;
+        }
+        this.dispatch(state, dispatcher, clazz, event, parents);
+        if (state.depth == 0 && !state.queue.isEmpty()) {
+            //The outermost call has finished, call all deferred events
+            Deferred deferred;
+            while ((deferred = state.queue.poll()) != null) {
+                this.dispatch(state, deferred.dispatcher, deferred.clazz, deferred.event, deferred.parents);
+            }
+        }
+    }
+
+    private void dispatch(final State state, final Dispatcher dispatcher, final Class<?> clazz, final Object event, final boolean parents) {
+        state.depth++;
+        try {
+            dispatcher.dispatch(clazz, event, parents);
+        } catch (Throwable t) {
+            state.queue.clear(); //Drop all deferred events if the call failed
+            throw t;
+        } finally {
+            state.depth--;
+        }
+    }
+
+
+    /**
+     * Calls the handlers of an event, either using the live call chains of a {@link LambdaManager} or the snapshot of a {@link FrozenDispatcher}.
+     */
+    @FunctionalInterface
+    interface Dispatcher {
+        void dispatch(final Class<?> clazz, final Object event, final boolean parents);
+    }
+
+    private static class State {
+        private final Queue<Deferred> queue = new ArrayDeque<>();
+        private int depth;
+    }
+
+    private static class Deferred {
+        private final Dispatcher dispatcher;
+        private final Class<?> clazz;
+        private final Object event;
+        private final boolean parents;
+
+        private Deferred(final Dispatcher dispatcher, final Class<?> clazz, final Object event, final boolean parents) {
+            this.dispatcher = dispatcher;
+            this.clazz = clazz;
+            this.event = event;
+            this.parents = parents;
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package net.lenni0451.lambdaevents;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A dispatcher which buffers posted events and calls them in one batch when {@link #flush()} is called.<br>
+ * The events are grouped by their class, the groups are called in the order in which their first event was posted since the last flush.
+ * Inside a group the events are called in the order they were posted.<br>
+ * Each group is called using {@link LambdaManager#callBatch(Class, Object[], int, int)}, so the call chain is only looked up once per group.
+ * Afterwards the {@link EventHandler#batch() batch handlers} are flushed.<br>
+ * <br>
+ * Posting events is thread safe. Events posted while flushing (e.g. by event handlers) are buffered for the next flush.
+ * Calling {@link #flush()} from inside a flush is not allowed.<br>
+ * The buffers are attached to the event classes using a {@link ClassValue}, so they don't prevent event classes from being unloaded.
+ * Buffers which grew for a burst of events shrink again once fewer events are posted.<br>
+ * <br>
+ * Event classes can be coalesced using {@link #setCoalescing(Class, Function)}. A posted event then replaces the pending event with the same key,
+ * so only the latest event per key is called once per flush.
+ */
+public class TickDispatcher {
+
+    private final LambdaManager manager;
+    private final int initialCapacity;
+    private final Object postLock = new Object();
+    private final Object flushLock = new Object();
+    private final ClassValue<Buffer> buffers = new ClassValue<Buffer>() {
+        @Override
+        protected Buffer computeValue(final Class<?> type) {
+            return new Buffer(type, TickDispatcher.this.initialCapacity);
+        }
+    };
+    private List<Buffer> pending = new ArrayList<>();
+    private List<Buffer> flushing = new ArrayList<>();
+    @Nullable
+    private Thread flushingThread;
+
+    /**
+     * @param manager The manager which should be used to call the events
+     */
+    public TickDispatcher(final LambdaManager manager) {
+        this(manager, 16);
+    }
+
+    /**
+     * @param manager         The manager which should be used to call the events
+     * @param initialCapacity The initial size of the buffer array of each event class
+     */
+    public TickDispatcher(final LambdaManager manager, final int initialCapacity) {
+        if (initialCapacity < 1) throw new IllegalArgumentException("The initial capacity has to be at least 1");
+        this.manager = manager;
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * @return The manager which is used to call the events
+     */
+    @Nonnull
+    public LambdaManager getManager() {
+        return this.manager;
+    }
+
+    /**
+     * Coalesce all events of the given class until the next flush.<br>
+     * Only the latest posted event is called, it keeps the position of the first event posted since the last flush.<br>
+     * Only events of exactly the given class are coalesced, subclasses are not affected.
+     *
+     * @param event The event class
+     */
+    public void setCoalescing(final Class<?> event) {
+        this.setCoalescing(event, e -> null); //All events share the same key
+    }
+
+    /**
+     * Coalesce events of the given class with the same key until the next flush.<br>
+     * Only the latest posted event per key is called, it keeps the position of the first event with the key posted since the last flush.<br>
+     * Only events of exactly the given class are coalesced, subclasses are not affected.
+     *
+     * @param event        The event class
+     * @param keyExtractor The function returning the key of an event
+     * @param <T>          The event type
+     */
+    public <T> void setCoalescing(final Class<T> event, final Function<? super T, ?> keyExtractor) {
+        synchronized (this.postLock) {
+            this.buffers.get(event).setKeyExtractor((Function<Object, ?>) keyExtractor);
+        }
+    }
+
+    /**
+     * Stop coalescing events of the given class.
+     *
+     * @param event The event class
+     */
+    public void removeCoalescing(final Class<?> event) {
+        synchronized (this.postLock) {
+            this.buffers.get(event).setKeyExtractor(null);
+        }
+    }
+
+    /**
+     * Buffer the given event until the next {@link #flush()}.
+     *
+     * @param event The event instance
+     */
+    public void post(@Nonnull final Object event) {
+        synchronized (this.postLock) {
+            Buffer buffer = this.buffers.get(event.getClass());
+            if (buffer.size == 0) this.pending.add(buffer); //First event of this class since the last flush
+            buffer.add(event);
+        }
+    }
+
+    /**
+     * @return The amount of buffered events
+     */
+    public int size() {
+        synchronized (this.postLock) {
+            int size = 0;
+            for (Buffer buffer : this.pending) size += buffer.size;
+            return size;
+        }
+    }
+
+    /**
+     * Get the size of the largest buffer array of the given event class.
+     *
+     * @param event The event class
+     * @return The capacity of the buffer
+     */
+    int getCapacity(final Class<?> event) {
+        synchronized (this.postLock) {
+            return this.buffers.get(event).getCapacity();
+        }
+    }
+
+    /**
+     * Remove all buffered events without calling them.
+     */
+    public void clear() {
+        synchronized (this.postLock) {
+            for (Buffer buffer : this.pending) buffer.clear();
+            this.pending.clear();
+        }
+    }
+
+    /**
+     * Call all buffered events.<br>
+     * If an exception is thrown out of a call (e.g. by a throwing {@link IExceptionHandler}), the remaining events of this flush are dropped.
+     *
+     * @throws IllegalStateException If called from inside a flush (e.g. by an event handler)
+     */
+    public void flush() {
+        //The flush lock is reentrant, a nested flush would swap the buffers which are still being called
+        if (this.flushingThread == Thread.currentThread()) throw new IllegalStateException("Can't flush the dispatcher from inside a flush");
+        synchronized (this.flushLock) {
+            this.flushingThread = Thread.currentThread();
+            synchronized (this.postLock) {
+                //Swap the buffers so events can be posted while flushing
+                List<Buffer> pending = this.pending;
+                this.pending = this.flushing;
+                this.flushing = pending;
+                for (Buffer buffer : pending) buffer.swap();
+            }
+            try {
+                for (Buffer buffer : this.flushing) {
+                    this.manager.callBatch(buffer.type, buffer.flushing, 0, buffer.flushingSize);
+                }
+                this.manager.flushBatches();
+            } finally {
+                for (Buffer buffer : this.flushing) buffer.clearFlushing();
+                this.flushing.clear();
+                this.flushingThread = null;
+            }
+        }
+    }
+
+
+    private static class Buffer {
+        private final Class<?> type;
+        private final int initialCapacity;
+        private Object[] events;
+        private int size;
+        private Object[] flushing;
+        private int flushingSize;
+        @Nullable
+        private Function<Object, ?> keyExtractor;
+        @Nullable
+        private Map<Object, Integer> keyIndices;
+
+        private Buffer(final Class<?> type, final int initialCapacity) {
+            this.type = type;
+            this.initialCapacity = initialCapacity;
+            this.events = new Object[initialCapacity];
+            this.flushing = new Object[initialCapacity];
+        }
+
+        private void setKeyExtractor(@Nullable final Function<Object, ?> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+            this.keyIndices = keyExtractor == null ? null : new HashMap<>(); //Pending events are not coalesced with events posted afterwards
+        }
+
+        private void add(final Object event) {
+            if (this.keyExtractor != null) {
+                Object key = this.keyExtractor.apply(event);
+                Integer index = this.keyIndices.get(key);
+                if (index != null) {
+                    //Replace the pending event with the same key
+                    this.events[index] = event;
+                    return;
+                }
+                this.keyIndices.put(key, this.size);
+            }
+            if (this.size == this.events.length) this.events = Arrays.copyOf(this.events, this.size * 2);
+            this.events[this.size++] = event;
+        }
+
+        private void swap() {
+            Object[] events = this.events;
+            this.events = this.flushing;
+            this.flushing = events;
+            this.flushingSize = this.size;
+            this.size = 0;
+            if (this.keyIndices != null) this.keyIndices.clear();
+        }
+
+        private void clear() {
+            Arrays.fill(this.events, 0, this.size, null);
+            this.size = 0;
+            if (this.keyIndices != null) this.keyIndices.clear();
+        }
+
+        private void clearFlushing() {
+            if (this.flushing.length > this.initialCapacity && this.flushingSize <= this.flushing.length / 4) {
+                //Only a small part of the array was used, shrink it to release the memory of a previous burst
+                this.flushing = new Object[Math.max(this.initialCapacity, this.flushing.length / 2)];
+            } else {
+                Arrays.fill(this.flushing, 0, this.flushingSize, null);
+            }
+            this.flushingSize = 0;
+        }
+
+        private int getCapacity() {
+            return Math.max(this.events.length, this.flushing.length);
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package net.lenni0451.lambdaevents.generator;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.utils.EventUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link IGenerator} implementation which uses the fastest generator that works for a handler.<br>
+ * The generators are tried in the given order until one of them generates the handler. By default the available generators are used in this order:<br>
+ * - {@link ASMGenerator} (if Reflect and ASM are on the class path)<br>
+ * - {@link HiddenClassGenerator} (if {@link HiddenClassGenerator#isSupported()})<br>
+ * - {@link LambdaMetaFactoryGenerator}<br>
+ * - {@link ReflectionGenerator}<br>
+ * - {@link MethodHandleGenerator}<br>
+ * <br>
+ * The generator that worked is cached for every handler method, so generators which failed for a method are not tried again
+ * when it is generated again (e.g. for another instance or virtual event). Other handlers of the same owner still start with the first generator.
+ * A reporter can be passed to get notified about the generator which was used for every handler.
+ */
+public class AutoGenerator implements IGenerator {
+
+    private final List<IGenerator> generators;
+    @Nullable
+    private final BiConsumer<Method, IGenerator> reporter;
+    private final ClassValue<Map<String, Integer>> methodGenerators = new ClassValue<Map<String, Integer>>() {
+        @Override
+        protected Map<String, Integer> computeValue(final Class<?> type) {
+            //The methods are stored by their signature, so the cache does not prevent the class from being unloaded
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Get the generators which are available in the current environment, ordered by their call performance.
+     *
+     * @param lookup The {@link MethodHandles.Lookup} to use for the generators which require one
+     * @return The available generators
+     */
+    @Nonnull
+    public static List<IGenerator> getAvailableGenerators(final MethodHandles.Lookup lookup) {
+        List<IGenerator> generators = new ArrayList<>();
+        if (isPresent("net.lenni0451.reflect.stream.RStream", "org.objectweb.asm.ClassWriter")) generators.add(new ASMGenerator());
+        if (HiddenClassGenerator.isSupported()) generators.add(HiddenClassGenerator.create(lookup));
+        generators.add(new LambdaMetaFactoryGenerator(lookup));
+        generators.add(new ReflectionGenerator());
+        generators.add(new MethodHandleGenerator(lookup));
+        return generators;
+    }
+
+    /**
+     * Use the available generators with the {@link MethodHandles.Lookup} of the current {@link ClassLoader}.
+     */
+    public AutoGenerator() {
+        this(MethodHandles.lookup());
+    }
+
+    /**
+     * Use the available generators with the given {@link MethodHandles.Lookup}.
+     *
+     * @param lookup The {@link MethodHandles.Lookup} to use
+     */
+    public AutoGenerator(final MethodHandles.Lookup lookup) {
+        this(lookup, null);
+    }
+
+    /**
+     * Use the available generators with the given {@link MethodHandles.Lookup}.
+     *
+     * @param lookup   The {@link MethodHandles.Lookup} to use
+     * @param reporter The reporter which is called with the handler method and the generator which generated it
+     */
+    public AutoGenerator(final MethodHandles.Lookup lookup, @Nullable final BiConsumer<Method, IGenerator> reporter) {
+        this(getAvailableGenerators(lookup), reporter);
+    }
+
+    /**
+     * @param generators The generators to try in the given order
+     * @param reporter   The reporter which is called with the handler method and the generator which generated it
+     */
+    public AutoGenerator(final List<IGenerator> generators, @Nullable final BiConsumer<Method, IGenerator> reporter) {
+        if (generators.isEmpty()) throw new IllegalArgumentException("At least one generator is required");
+        this.generators = Collections.unmodifiableList(new ArrayList<>(generators));
+        this.reporter = reporter;
+    }
+
+    /**
+     * @param generators The generators to try in the given order
+     */
+    public AutoGenerator(final IGenerator... generators) {
+        this(Arrays.asList(generators), null);
+    }
+
+    /**
+     * @return The generators which are tried in order
+     */
+    @Nonnull
+    public List<IGenerator> getGenerators() {
+        return this.generators;
+    }
+
+    /**
+     * Get the generator which is used for the given handler method.<br>
+     * If the handler was not generated yet, the first generator is returned.
+     *
+     * @param method The handler method
+     * @return The generator used for the method
+     */
+    @Nonnull
+    public IGenerator getGenerator(final Method method) {
+        return this.generators.get(this.methodGenerators.get(method.getDeclaringClass()).getOrDefault(getSignature(method), 0));
+    }
+
+    @Override
+    @Nonnull
+    public AHandler generate(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method, Class<?> arg) {
+        return this.generate(method, generator -> generator.generate(owner, instance, annotation, method, arg));
+    }
+
+    @Override
+    @Nonnull
+    public AHandler generateVirtual(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method) {
+        return this.generate(method, generator -> generator.generateVirtual(owner, instance, annotation, method));
+    }
+
+    private AHandler generate(final Method method, final GeneratorCall call) {
+        Map<String, Integer> methodGenerators = this.methodGenerators.get(method.getDeclaringClass());
+        String signature = getSignature(method);
+        List<Throwable> errors = new ArrayList<>();
+        for (int i = methodGenerators.getOrDefault(signature, 0); i < this.generators.size(); i++) {
+            IGenerator generator = this.generators.get(i);
+            AHandler handler;
+            try {
+                handler = call.generate(generator);
+            } catch (Throwable t) {
+                errors.add(t);
+                continue;
+            }
+            //Only move forward, so a generator which already failed for the method is never tried again
+            methodGenerators.merge(signature, i, Math::max);
+            if (this.reporter != null) this.reporter.accept(method, generator);
+            return handler;
+        }
+        IllegalStateException exception = new IllegalStateException("No generator could generate a handler for " + EventUtils.toString(method));
+        for (Throwable error : errors) exception.addSuppressed(error);
+        throw exception;
+    }
+
+    private static String getSignature(final Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        for (Class<?> param : method.getParameterTypes()) signature.append(param.getName()).append(';');
+        return signature.append(')').toString();
+    }
+
+    private static boolean isPresent(final String... classes) {
+        try {
+            for (String clazz : classes) Class.forName(clazz, false, AutoGenerator.class.getClassLoader());
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+
+    @FunctionalInterface
+    private interface GeneratorCall {
+        AHandler generate(final IGenerator generator);
+    }
+
+}
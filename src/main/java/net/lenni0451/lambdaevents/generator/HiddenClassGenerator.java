@@ -0,0 +1,64 @@
+package net.lenni0451.lambdaevents.generator;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+/**
+ * The placeholder of the hidden class {@link IGenerator} for Java versions older than 16.<br>
+ * Hidden classes are not supported here, so {@link #isSupported()} returns {@code false} and {@link #create(MethodHandles.Lookup)} throws an {@link UnsupportedOperationException}.
+ * The real implementation is part of the multi-release jar and used on Java 16 or newer.
+ */
+public class HiddenClassGenerator implements IGenerator {
+
+    /**
+     * @return If hidden classes are supported by the current Java version
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+
+    /**
+     * Always throws, hidden classes require Java 16 or newer.
+     *
+     * @return Nothing
+     * @throws UnsupportedOperationException Always
+     */
+    public static HiddenClassGenerator create() {
+        return create(MethodHandles.lookup());
+    }
+
+    /**
+     * Always throws, hidden classes require Java 16 or newer.
+     *
+     * @param lookup The {@link MethodHandles.Lookup} to use
+     * @return Nothing
+     * @throws UnsupportedOperationException Always
+     */
+    public static HiddenClassGenerator create(final MethodHandles.Lookup lookup) {
+        throw new UnsupportedOperationException("Hidden classes require Java 16 or newer, check isSupported() first");
+    }
+
+
+    private HiddenClassGenerator() {
+    }
+
+    @Nonnull
+    @Override
+    public AHandler generate(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method, Class<?> arg) {
+        throw new UnsupportedOperationException("Hidden classes require Java 16 or newer");
+    }
+
+    @Nonnull
+    @Override
+    public AHandler generateVirtual(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method) {
+        throw new UnsupportedOperationException("Hidden classes require Java 16 or newer");
+    }
+
+}
@@ -0,0 +1,41 @@
+package net.lenni0451.lambdaevents.generator;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.handler.LazyHandler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+
+/**
+ * The {@link IGenerator} implementation which delays the generation of handlers until they are called for the first time.<br>
+ * Handlers of events which are never called are never generated, which reduces the startup time and memory usage.<br>
+ * The handler methods are still verified when registering, but errors of the wrapped generator are only thrown when the handler is called.<br>
+ * e.g. {@code new LazyGenerator(new LambdaMetaFactoryGenerator())}
+ */
+public class LazyGenerator implements IGenerator {
+
+    private final IGenerator generator;
+
+    /**
+     * @param generator The generator which is used to generate the handlers when they are called
+     */
+    public LazyGenerator(final IGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    @Nonnull
+    public AHandler generate(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method, Class<?> arg) {
+        return new LazyHandler(owner, instance, annotation, this.generator, method, arg);
+    }
+
+    @Override
+    @Nonnull
+    public AHandler generateVirtual(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method) {
+        return new LazyHandler(owner, instance, annotation, this.generator, method, null);
+    }
+
+}
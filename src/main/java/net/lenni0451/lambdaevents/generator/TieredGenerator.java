@@ -0,0 +1,59 @@
+package net.lenni0451.lambdaevents.generator;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.handler.TieredHandler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+
+/**
+ * The {@link IGenerator} implementation which first generates a cheap handler and replaces it with an optimized handler once it was called often enough.<br>
+ * This is useful when registering a lot of handlers which are rarely called, since the expensive generation is only done for hot handlers.<br>
+ * e.g. {@code new TieredGenerator(new MethodHandleGenerator(), new LambdaMetaFactoryGenerator())}
+ */
+public class TieredGenerator implements IGenerator {
+
+    private final IGenerator initialGenerator;
+    private final IGenerator optimizedGenerator;
+    private final int threshold;
+
+    /**
+     * Create a new tiered generator which upgrades handlers after 1000 calls.
+     *
+     * @param initialGenerator   The generator for the initial handlers
+     * @param optimizedGenerator The generator for the handlers which are called often
+     */
+    public TieredGenerator(final IGenerator initialGenerator, final IGenerator optimizedGenerator) {
+        this(initialGenerator, optimizedGenerator, 1000);
+    }
+
+    /**
+     * @param initialGenerator   The generator for the initial handlers
+     * @param optimizedGenerator The generator for the handlers which are called often
+     * @param threshold          The amount of calls after which a handler is upgraded
+     */
+    public TieredGenerator(final IGenerator initialGenerator, final IGenerator optimizedGenerator, final int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("The threshold has to be at least 1");
+        this.initialGenerator = initialGenerator;
+        this.optimizedGenerator = optimizedGenerator;
+        this.threshold = threshold;
+    }
+
+    @Override
+    @Nonnull
+    public AHandler generate(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method, Class<?> arg) {
+        AHandler handler = this.initialGenerator.generate(owner, instance, annotation, method, arg);
+        return new TieredHandler(owner, instance, annotation, handler, this.threshold, () -> this.optimizedGenerator.generate(owner, instance, annotation, method, arg));
+    }
+
+    @Override
+    @Nonnull
+    public AHandler generateVirtual(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method) {
+        AHandler handler = this.initialGenerator.generateVirtual(owner, instance, annotation, method);
+        return new TieredHandler(owner, instance, annotation, handler, this.threshold, () -> this.optimizedGenerator.generateVirtual(owner, instance, annotation, method));
+    }
+
+}
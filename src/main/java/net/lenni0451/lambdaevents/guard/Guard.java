@@ -0,0 +1,49 @@
+package net.lenni0451.lambdaevents.guard;
+
+import net.lenni0451.lambdaevents.EventHandler;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A condition which has to be met by an event before a handler is called.<br>
+ * Guards are declared using the {@link EventHandler} annotation and resolved when the handler is registered.<br>
+ * Guards which check the same condition are equal. The results of {@link #isPure() pure} guards are only evaluated once per call,
+ * even if multiple handlers use them. All other guards are evaluated again after a handler was called.
+ */
+public abstract class Guard {
+
+    /**
+     * An empty array of guards.
+     */
+    public static final Guard[] NONE = new Guard[0];
+
+
+    /**
+     * Test if the given event meets the condition of this guard.
+     *
+     * @param event The event instance
+     * @return If the handler should be called
+     */
+    public abstract boolean test(@Nonnull final Object event);
+
+    /**
+     * Check if the result of this guard can't be changed by a handler.<br>
+     * The results of pure guards are shared by all handlers of a call. Other guards are evaluated again after a handler was called,
+     * since the handler could have changed the state of the event.
+     *
+     * @return If the result of this guard is the same for the whole call
+     */
+    public boolean isPure() {
+        return false;
+    }
+
+    @Override
+    public abstract boolean equals(final Object o);
+
+    @Override
+    public abstract int hashCode();
+
+    @Override
+    public abstract String toString();
+
+}
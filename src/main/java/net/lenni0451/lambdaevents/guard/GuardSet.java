@@ -0,0 +1,58 @@
+package net.lenni0451.lambdaevents.guard;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The guards of a handler inside a call chain.<br>
+ * All handlers of a call chain share the same guard table, the mask selects the guards required by the handler.
+ * This allows the result of every {@link Guard#isPure() pure} guard to be cached for the duration of a single call.
+ */
+public class GuardSet {
+
+    /**
+     * The maximum amount of guards in a shared table.
+     */
+    public static final int MAX_GUARDS = Long.SIZE;
+
+    @Nonnull
+    private final Guard[] table;
+    private final long mask;
+    private final long pureMask;
+
+    /**
+     * @param table The guard table shared by the handlers of the call chain
+     * @param mask  The bits of the guards required by the handler
+     */
+    public GuardSet(@Nonnull final Guard[] table, final long mask) {
+        this.table = table;
+        this.mask = mask;
+        long pureMask = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i].isPure()) pureMask |= 1L << i;
+        }
+        this.pureMask = pureMask;
+    }
+
+    /**
+     * @return The guard table shared by the handlers of the call chain
+     */
+    @Nonnull
+    public Guard[] getTable() {
+        return this.table;
+    }
+
+    /**
+     * @return The bits of the guards required by the handler
+     */
+    public long getMask() {
+        return this.mask;
+    }
+
+    /**
+     * @return The bits of all pure guards in the table, their results stay valid after a handler was called
+     */
+    public long getPureMask() {
+        return this.pureMask;
+    }
+
+}
@@ -0,0 +1,69 @@
+package net.lenni0451.lambdaevents.guard;
+
+import lombok.SneakyThrows;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.utils.EventUtils;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * A {@link Guard} which calls a static predicate method with the event.<br>
+ * The predicate has to be pure, its result is shared by all handlers of a call even if a handler changes the event.
+ *
+ * @see EventHandler#guards()
+ */
+public class PredicateGuard extends Guard {
+
+    @Nonnull
+    private final Method method;
+    @Nonnull
+    private final MethodHandle handle;
+
+    /**
+     * @param method The static predicate method
+     * @param handle The method handle of the predicate with the type {@code (Object)boolean}
+     */
+    public PredicateGuard(@Nonnull final Method method, @Nonnull final MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+    }
+
+    /**
+     * @return The static predicate method
+     */
+    @Nonnull
+    public Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    @SneakyThrows
+    public boolean test(@Nonnull Object event) {
+        return (boolean) this.handle.invokeExact(event);
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PredicateGuard)) return false;
+        return this.method.equals(((PredicateGuard) o).method);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.method.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.method.getDeclaringClass().getName() + "#" + EventUtils.toString(this.method);
+    }
+
+}
@@ -0,0 +1,74 @@
+package net.lenni0451.lambdaevents.guard;
+
+import lombok.SneakyThrows;
+import net.lenni0451.lambdaevents.EventHandler;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Member;
+
+/**
+ * A {@link Guard} which requires a boolean field or method of the event to have the expected value.<br>
+ * The state can be changed by handlers, so it is evaluated again for every handler which is called after another handler.
+ *
+ * @see EventHandler#requireState()
+ */
+public class StateGuard extends Guard {
+
+    @Nonnull
+    private final Member member;
+    private final boolean expected;
+    @Nonnull
+    private final MethodHandle getter;
+
+    /**
+     * @param member   The boolean field or method of the event
+     * @param expected The value the field or method has to return
+     * @param getter   The method handle to get the value with the type {@code (Object)boolean}
+     */
+    public StateGuard(@Nonnull final Member member, final boolean expected, @Nonnull final MethodHandle getter) {
+        this.member = member;
+        this.expected = expected;
+        this.getter = getter;
+    }
+
+    /**
+     * @return The boolean field or method of the event
+     */
+    @Nonnull
+    public Member getMember() {
+        return this.member;
+    }
+
+    /**
+     * @return The value the field or method has to return
+     */
+    public boolean getExpected() {
+        return this.expected;
+    }
+
+    @Override
+    @SneakyThrows
+    public boolean test(@Nonnull Object event) {
+        return (boolean) this.getter.invokeExact(event) == this.expected;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StateGuard)) return false;
+        StateGuard other = (StateGuard) o;
+        return this.expected == other.expected && this.member.equals(other.member);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.member.hashCode() + Boolean.hashCode(this.expected);
+    }
+
+    @Override
+    public String toString() {
+        return (this.expected ? "" : "!") + this.member.getDeclaringClass().getName() + "." + this.member.getName();
+    }
+
+}
@@ -0,0 +1,59 @@
+package net.lenni0451.lambdaevents.guard;
+
+import net.lenni0451.lambdaevents.EventHandler;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link Guard} which requires the event to be an instance of the given type.
+ *
+ * @see EventHandler#requireTypes()
+ */
+public class TypeGuard extends Guard {
+
+    @Nonnull
+    private final Class<?> type;
+
+    /**
+     * @param type The type the event has to be an instance of
+     */
+    public TypeGuard(@Nonnull final Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * @return The type the event has to be an instance of
+     */
+    @Nonnull
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    @Override
+    public boolean test(@Nonnull Object event) {
+        return this.type.isInstance(event);
+    }
+
+    @Override
+    public boolean isPure() {
+        return true; //The type of the event never changes
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TypeGuard)) return false;
+        return this.type.equals(((TypeGuard) o).type);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.type.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "instanceof " + this.type.getName();
+    }
+
+}
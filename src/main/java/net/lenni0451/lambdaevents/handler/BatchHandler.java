@@ -0,0 +1,145 @@
+package net.lenni0451.lambdaevents.handler;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IExceptionHandler;
+import net.lenni0451.lambdaevents.StopCall;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link AHandler} implementation which collects events and passes them to a handler taking a {@link List} or an array.<br>
+ * The lists passed to the handler are reused for every batch. Array handlers receive a new array for every batch.
+ *
+ * @see EventHandler#batch()
+ */
+public class BatchHandler extends AHandler {
+
+    @Nonnull
+    private final AHandler handler;
+    @Nonnull
+    private final Class<?> event;
+    @Nullable
+    private final Class<?> arrayType;
+    private final int batchSize;
+    private final long batchWindow;
+    private List<Object> events = new ArrayList<>();
+    private List<Object> flushingEvents = new ArrayList<>();
+    private long batchStart;
+    private boolean flushing;
+
+    /**
+     * @param owner      The owner of the handler method
+     * @param instance   The instance of the handler owner
+     * @param annotation The {@link EventHandler} annotation of the handler method
+     * @param handler    The handler which is called with the list or array of events
+     * @param event      The event class the handler is registered for
+     * @param arrayType  The component type of the array parameter or {@code null} if the handler takes a list
+     */
+    public BatchHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final AHandler handler, final Class<?> event, @Nullable final Class<?> arrayType) {
+        super(owner, instance, annotation);
+        this.handler = handler;
+        this.event = event;
+        this.arrayType = arrayType;
+        this.batchSize = annotation.batchSize();
+        this.batchWindow = TimeUnit.MILLISECONDS.toNanos(annotation.batchWindow());
+    }
+
+    /**
+     * @return The handler which is called with the list or array of events
+     */
+    @Nonnull
+    public AHandler getHandler() {
+        return this.handler;
+    }
+
+    /**
+     * @return The event class the handler is registered for
+     */
+    @Nonnull
+    public Class<?> getEvent() {
+        return this.event;
+    }
+
+    /**
+     * @return The amount of collected events which were not passed to the handler yet
+     */
+    public synchronized int size() {
+        return this.events.size();
+    }
+
+    @Override
+    public void call(Object event) {
+        List<Object> batch;
+        synchronized (this) {
+            if (this.events.isEmpty() && this.batchWindow > 0) this.batchStart = System.nanoTime();
+            this.events.add(event);
+            if (this.batchSize > 0 && this.events.size() >= this.batchSize) batch = this.takeBatch();
+            else if (this.batchWindow > 0 && System.nanoTime() - this.batchStart >= this.batchWindow) batch = this.takeBatch();
+            else return;
+        }
+        if (batch == null) return; //Another thread is flushing, the event is passed with the next batch
+        try {
+            this.handler.call(this.toBatch(batch));
+        } finally {
+            this.releaseBatch(batch);
+        }
+    }
+
+    /**
+     * Pass all collected events to the handler.<br>
+     * Events collected while the handler is called are passed with the next batch.
+     * The handler is called without holding the lock of this batch handler.
+     *
+     * @param exceptionHandler The exception handler which is called with the list or array of events if the handler throws an exception
+     */
+    public void flush(final IExceptionHandler exceptionHandler) {
+        List<Object> batch;
+        synchronized (this) {
+            batch = this.takeBatch();
+        }
+        if (batch == null) return;
+        Object handlerBatch = this.toBatch(batch);
+        try {
+            this.handler.call(handlerBatch);
+        } catch (StopCall ignored) {
+            //There is no call chain to stop
+        } catch (Throwable t) {
+            exceptionHandler.handle(this, handlerBatch, t); //The handler threw an exception, handle it and continue
+        } finally {
+            this.releaseBatch(batch);
+        }
+    }
+
+    @Nullable
+    private List<Object> takeBatch() {
+        if (this.flushing || this.events.isEmpty()) return null;
+        //Swap the lists so events called by the handler itself are collected for the next batch
+        List<Object> events = this.events;
+        this.events = this.flushingEvents;
+        this.flushingEvents = events;
+        this.flushing = true;
+        return events;
+    }
+
+    private Object toBatch(final List<Object> events) {
+        if (this.arrayType == null) return events;
+        else return events.toArray((Object[]) Array.newInstance(this.arrayType, events.size()));
+    }
+
+    private synchronized void releaseBatch(final List<Object> events) {
+        events.clear();
+        this.flushing = false;
+    }
+
+    @Override
+    public String toString() {
+        return "batch " + this.handler;
+    }
+
+}
@@ -0,0 +1,40 @@
+package net.lenni0451.lambdaevents.handler;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+
+import javax.annotation.Nullable;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@link AHandler} implementation for {@link IntConsumer} handlers of primitive event channels.<br>
+ * When called with an event object the object has to be a {@link Number}, it is unboxed before calling the consumer.
+ */
+public class IntConsumerHandler extends PrimitiveHandler<IntConsumer> {
+
+    /**
+     * @param owner      The owner of the handler method
+     * @param instance   The instance of the handler owner
+     * @param annotation The {@link EventHandler} annotation of the handler method
+     * @param consumer   The handler consumer
+     */
+    public IntConsumerHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final IntConsumer consumer) {
+        super(owner, instance, annotation, consumer);
+    }
+
+    @Override
+    public void callPrimitive(final int intValue, final long longValue, final double doubleValue) {
+        this.consumer.accept(intValue);
+    }
+
+    @Override
+    public void call(Object event) {
+        this.consumer.accept(((Number) event).intValue());
+    }
+
+    @Override
+    protected String getTypeName() {
+        return "int";
+    }
+
+}
@@ -0,0 +1,43 @@
+package net.lenni0451.lambdaevents.handler;
+
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.types.IKeyedEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Consumer;
+
+/**
+ * The {@link ConsumerHandler} implementation for {@link Consumer} events which are only called for events with a matching {@link IKeyedEvent#getEventKey() key}.
+ */
+public class KeyedHandler extends ConsumerHandler {
+
+    @Nonnull
+    private final Object key;
+
+    /**
+     * @param owner      The owner of the handler method
+     * @param instance   The instance of the handler owner
+     * @param annotation The {@link EventHandler} annotation of the handler method
+     * @param consumer   The handler consumer
+     * @param key        The key the event has to match
+     */
+    public KeyedHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final Consumer consumer, final Object key) {
+        super(owner, instance, annotation, consumer);
+        this.key = key;
+    }
+
+    /**
+     * @return The key the event has to match
+     */
+    @Nonnull
+    public Object getKey() {
+        return this.key;
+    }
+
+    @Override
+    public String toString() {
+        return "keyed(" + this.key + ") " + super.toString();
+    }
+
+}
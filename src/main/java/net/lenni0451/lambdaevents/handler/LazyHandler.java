@@ -0,0 +1,97 @@
+package net.lenni0451.lambdaevents.handler;
+
+import lombok.SneakyThrows;
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.generator.LazyGenerator;
+import net.lenni0451.lambdaevents.utils.EventUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+
+/**
+ * The {@link AHandler} implementation which only stores the handler method and generates the real handler when it is called for the first time.<br>
+ * The generation is only done once, even if the handler is called by multiple threads at the same time.
+ * If the generation fails, the failure is cached and thrown again for all following calls.
+ *
+ * @see LazyGenerator
+ */
+public class LazyHandler extends AHandler {
+
+    @Nonnull
+    private final IGenerator generator;
+    @Nonnull
+    private final Method method;
+    @Nullable
+    private final Class<?> arg;
+    @Nullable
+    private volatile AHandler handler;
+    @Nullable
+    private Throwable failure;
+
+    /**
+     * @param owner      The owner of the handler method
+     * @param instance   The instance of the handler owner
+     * @param annotation The {@link EventHandler} annotation of the handler method
+     * @param generator  The generator which is used to generate the handler
+     * @param method     The handler method
+     * @param arg        The event class or {@code null} if the handler is virtual
+     */
+    public LazyHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final IGenerator generator, final Method method, @Nullable final Class<?> arg) {
+        super(owner, instance, annotation);
+        this.generator = generator;
+        this.method = method;
+        this.arg = arg;
+    }
+
+    /**
+     * @return The handler method
+     */
+    @Nonnull
+    public Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return The generated handler or {@code null} if the handler was not called yet
+     */
+    @Nullable
+    public AHandler getHandler() {
+        return this.handler;
+    }
+
+    @Override
+    public void call(Object event) {
+        AHandler handler = this.handler;
+        if (handler == null) handler = this.generate();
+        handler.call(event);
+    }
+
+    @SneakyThrows
+    private synchronized AHandler generate() {
+        AHandler handler = this.handler;
+        if (handler == null) {
+            //The handler was not generated by another thread in the meantime
+            if (this.failure != null) throw this.failure; //Don't retry a failed generation on every call
+            try {
+                if (this.arg == null) handler = this.generator.generateVirtual(this.owner, this.instance, this.annotation, this.method);
+                else handler = this.generator.generate(this.owner, this.instance, this.annotation, this.method, this.arg);
+            } catch (Throwable t) {
+                this.failure = t;
+                throw t;
+            }
+            this.handler = handler;
+        }
+        return handler;
+    }
+
+    @Override
+    public String toString() {
+        AHandler handler = this.handler;
+        if (handler == null) return "lazy: " + this.owner.getName() + " -> " + EventUtils.toString(this.method);
+        return "lazy " + handler;
+    }
+
+}
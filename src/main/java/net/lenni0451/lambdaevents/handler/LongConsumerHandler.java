@@ -0,0 +1,40 @@
+package net.lenni0451.lambdaevents.handler;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+
+import javax.annotation.Nullable;
+import java.util.function.LongConsumer;
+
+/**
+ * The {@link AHandler} implementation for {@link LongConsumer} handlers of primitive event channels.<br>
+ * When called with an event object the object has to be a {@link Number}, it is unboxed before calling the consumer.
+ */
+public class LongConsumerHandler extends PrimitiveHandler<LongConsumer> {
+
+    /**
+     * @param owner      The owner of the handler method
+     * @param instance   The instance of the handler owner
+     * @param annotation The {@link EventHandler} annotation of the handler method
+     * @param consumer   The handler consumer
+     */
+    public LongConsumerHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final LongConsumer consumer) {
+        super(owner, instance, annotation, consumer);
+    }
+
+    @Override
+    public void callPrimitive(final int intValue, final long longValue, final double doubleValue) {
+        this.consumer.accept(longValue);
+    }
+
+    @Override
+    public void call(Object event) {
+        this.consumer.accept(((Number) event).longValue());
+    }
+
+    @Override
+    protected String getTypeName() {
+        return "long";
+    }
+
+}
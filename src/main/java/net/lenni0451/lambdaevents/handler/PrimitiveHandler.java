@@ -0,0 +1,63 @@
+package net.lenni0451.lambdaevents.handler;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.LambdaManager;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The base {@link AHandler} implementation for the handlers of primitive event channels.<br>
+ * The value is passed in all primitive representations, so every handler can take the one of its consumer without boxing.
+ *
+ * @param <C> The type of the consumer
+ * @see LambdaManager#callInt(Class, int)
+ * @see LambdaManager#callLong(Class, long)
+ * @see LambdaManager#callDouble(Class, double)
+ */
+public abstract class PrimitiveHandler<C> extends AHandler {
+
+    @Nonnull
+    protected final C consumer;
+
+    /**
+     * @param owner      The owner of the handler method
+     * @param instance   The instance of the handler owner
+     * @param annotation The {@link EventHandler} annotation of the handler method
+     * @param consumer   The handler consumer
+     */
+    public PrimitiveHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final C consumer) {
+        super(owner, instance, annotation);
+        this.consumer = consumer;
+    }
+
+    /**
+     * @return The handler consumer
+     */
+    @Nonnull
+    public C getConsumer() {
+        return this.consumer;
+    }
+
+    /**
+     * Call the event handler with the given primitive value.<br>
+     * All parameters represent the same value converted to the primitive type.
+     *
+     * @param intValue    The value as an int
+     * @param longValue   The value as a long
+     * @param doubleValue The value as a double
+     */
+    public abstract void callPrimitive(final int intValue, final long longValue, final double doubleValue);
+
+    /**
+     * @return The name of the primitive type used in {@link #toString()}
+     */
+    protected abstract String getTypeName();
+
+    @Override
+    public String toString() {
+        return this.getTypeName() + " consumer: " + this.owner.getName() + " -> " + this.consumer.getClass().getName();
+    }
+
+}
@@ -0,0 +1,117 @@
+package net.lenni0451.lambdaevents.handler;
+
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.generator.TieredGenerator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The {@link AHandler} implementation which delegates to a cheap handler until it was called often enough.<br>
+ * Then the optimized handler is generated and replaces the cheap one.
+ * The {@link net.lenni0451.lambdaevents.LambdaManager} also replaces this handler with the optimized one in its call chain.<br>
+ * If the optimized handler can't be generated, the initial handler is kept and the failure is thrown after the event was passed to it,
+ * so it is passed to the exception handler of the manager.
+ *
+ * @see TieredGenerator
+ */
+public class TieredHandler extends AHandler {
+
+    private final int threshold;
+    @Nullable
+    private Supplier<AHandler> optimizedHandler;
+    @Nonnull
+    private volatile AHandler handler;
+    private volatile boolean upgraded;
+    private int calls;
+    @Nullable
+    private Consumer<TieredHandler> upgradeListener;
+
+    /**
+     * @param owner            The owner of the handler method
+     * @param instance         The instance of the handler owner
+     * @param annotation       The {@link EventHandler} annotation of the handler method
+     * @param handler          The initial handler
+     * @param threshold        The amount of calls after which the handler is upgraded
+     * @param optimizedHandler The supplier generating the optimized handler
+     */
+    public TieredHandler(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final AHandler handler, final int threshold, final Supplier<AHandler> optimizedHandler) {
+        super(owner, instance, annotation);
+        this.handler = handler;
+        this.threshold = threshold;
+        this.optimizedHandler = optimizedHandler;
+    }
+
+    /**
+     * @return The handler which is currently called
+     */
+    @Nonnull
+    public AHandler getHandler() {
+        return this.handler;
+    }
+
+    /**
+     * @return If the handler was upgraded (or the upgrade failed and the initial handler is kept)
+     */
+    public boolean isUpgraded() {
+        return this.upgraded;
+    }
+
+    /**
+     * Set the listener which is called after the handler was upgraded successfully.<br>
+     * It is used by the manager to replace this handler with the optimized one in the call chain.
+     *
+     * @param upgradeListener The listener or {@code null} to remove it
+     */
+    public void setUpgradeListener(@Nullable final Consumer<TieredHandler> upgradeListener) {
+        this.upgradeListener = upgradeListener;
+    }
+
+    @Override
+    public void call(Object event) {
+        //The counter is not atomic, a few lost increments only delay the upgrade
+        if (!this.upgraded && ++this.calls >= this.threshold) this.upgradeAndCall(event);
+        else this.handler.call(event);
+    }
+
+    private void upgradeAndCall(final Object event) {
+        Exception failure = null;
+        boolean upgradedNow = false;
+        synchronized (this) {
+            if (!this.upgraded) {
+                try {
+                    this.handler = this.optimizedHandler.get();
+                    upgradedNow = true;
+                } catch (Exception e) {
+                    failure = e; //Keep the initial handler if the optimized handler can't be generated
+                }
+                this.optimizedHandler = null;
+                this.upgraded = true;
+            }
+        }
+        Consumer<TieredHandler> upgradeListener = this.upgradeListener;
+        if (upgradedNow && upgradeListener != null) upgradeListener.accept(this);
+        if (failure == null) {
+            this.handler.call(event);
+            return;
+        }
+
+        IllegalStateException upgradeFailure = new IllegalStateException("The optimized handler could not be generated, the initial handler is kept", failure);
+        try {
+            this.handler.call(event);
+        } catch (Throwable t) {
+            t.addSuppressed(upgradeFailure);
+            throw t;
+        }
+        throw upgradeFailure;
+    }
+
+    @Override
+    public String toString() {
+        return "tiered " + this.handler;
+    }
+
+}
@@ -10,10 +10,14 @@ import java.lang.reflect.Method;
 
 /**
  * The {@link AHandler} implementation which calls the handler method using reflection.<br>
- * <b>Only for use if the method has the event as the only parameter.</b>
+ * <b>Only for use if the method has the event as the only parameter.</b><br>
+ * The argument array passed to {@link Method#invoke(Object, Object...)} is reused per thread, so calling the handler does not allocate.
  */
 public class ReflectionHandler extends AHandler {
 
+    //Method#invoke reads the arguments before calling the method, so the array can be reused for nested calls on the same thread
+    private static final ThreadLocal<Object[]> ARGUMENTS = ThreadLocal.withInitial(() -> new Object[1]);
+
     private final Method method;
 
     /**
@@ -30,7 +34,13 @@ public class ReflectionHandler extends AHandler {
     @Override
     @SneakyThrows
     public void call(Object event) {
-        this.method.invoke(this.instance, event);
+        Object[] arguments = ARGUMENTS.get();
+        arguments[0] = event;
+        try {
+            this.method.invoke(this.instance, arguments);
+        } finally {
+            arguments[0] = null; //Don't keep the event alive
+        }
     }
 
     @Override
@@ -14,6 +14,8 @@ import java.lang.reflect.Method;
  */
 public class VirtualReflectionHandler extends AHandler {
 
+    private static final Object[] NO_ARGUMENTS = new Object[0]; //Avoid allocating an empty varargs array for every call
+
     private final Method method;
 
     /**
@@ -30,7 +32,7 @@ public class VirtualReflectionHandler extends AHandler {
     @Override
     @SneakyThrows
     public void call(Object event) {
-        this.method.invoke(this.instance);
+        this.method.invoke(this.instance, NO_ARGUMENTS);
     }
 
     @Override
@@ -0,0 +1,22 @@
+package net.lenni0451.lambdaevents.types;
+
+import net.lenni0451.lambdaevents.LambdaManager;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An interface to mark an event as keyed.<br>
+ * Required for {@link LambdaManager#registerKeyed(Class, Object, java.util.function.Consumer)} to work.<br>
+ * Keyed handlers are only called if the key of the event equals the key they were registered with.
+ */
+public interface IKeyedEvent {
+
+    /**
+     * The key is compared using {@link Object#equals(Object)} and {@link Object#hashCode()}.
+     *
+     * @return The key of the event (e.g. an entity id)
+     */
+    @Nonnull
+    Object getEventKey();
+
+}
@@ -0,0 +1,350 @@
+package net.lenni0451.lambdaevents.utils;
+
+import net.lenni0451.lambdaevents.EventHandler;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Find {@link EventHandler} methods and fields by reading the class file of a class.<br>
+ * Only the annotated members are reflected, classes without annotated members are not reflected at all.
+ * This avoids creating reflection objects and parsing annotations for all members of big listener classes and their super classes.<br>
+ * <br>
+ * The class file is loaded using {@link ClassLoader#getResourceAsStream(String)}.
+ * If it is not available (e.g. generated classes) or does not match the loaded class, {@code null} is returned and reflection has to be used instead.<br>
+ * <b>Classes which are transformed at runtime (e.g. by java agents) may not match their class file!</b><br>
+ * The scanned members are cached, so every class file is only read once.
+ */
+public class ClassFileScanner {
+
+    private static final byte[] ANNOTATION_DESCRIPTOR = ("L" + EventHandler.class.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final ClassValue<Members> scanned = new ClassValue<Members>() {
+        @Override
+        protected Members computeValue(final Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    /**
+     * Get all methods of the given class which are annotated with {@link EventHandler}.
+     *
+     * @param clazz The class to get the methods from
+     * @return The annotated methods or {@code null} if the class file is not available
+     */
+    @Nullable
+    public static Method[] getAnnotatedMethods(final Class<?> clazz) {
+        Members members = scanned.get(clazz);
+        if (members == Members.UNAVAILABLE) return null;
+        Method[] methods = new Method[members.methods.size()];
+        try {
+            for (int i = 0; i < methods.length; i++) {
+                String[] method = members.methods.get(i);
+                methods[i] = clazz.getDeclaredMethod(method[0], getParameterTypes(clazz, method[1]));
+            }
+        } catch (NoSuchMethodException | ClassNotFoundException | LinkageError e) {
+            return null; //The class file does not match the loaded class
+        }
+        return methods;
+    }
+
+    /**
+     * Get all fields of the given class which are annotated with {@link EventHandler}.
+     *
+     * @param clazz The class to get the fields from
+     * @return The annotated fields or {@code null} if the class file is not available
+     */
+    @Nullable
+    public static Field[] getAnnotatedFields(final Class<?> clazz) {
+        Members members = scanned.get(clazz);
+        if (members == Members.UNAVAILABLE) return null;
+        Field[] fields = new Field[members.fields.size()];
+        try {
+            for (int i = 0; i < fields.length; i++) fields[i] = clazz.getDeclaredField(members.fields.get(i));
+        } catch (NoSuchFieldException | LinkageError e) {
+            return null; //The class file does not match the loaded class
+        }
+        return fields;
+    }
+
+    private static Members scan(final Class<?> clazz) {
+        ClassLoader loader = clazz.getClassLoader();
+        if (loader == null && EventHandler.class.getClassLoader() != null) return Members.EMPTY; //Bootstrap classes can't see the annotation
+        if (clazz.isArray() || clazz.isPrimitive()) return Members.EMPTY;
+
+        byte[] bytes = readClassFile(clazz);
+        if (bytes == null) return Members.UNAVAILABLE;
+        try {
+            return new Parser(bytes).parse();
+        } catch (IndexOutOfBoundsException | IOException e) {
+            return Members.UNAVAILABLE; //The class file is corrupted or uses an unknown format
+        }
+    }
+
+    @Nullable
+    private static byte[] readClassFile(final Class<?> clazz) {
+        ClassLoader loader = clazz.getClassLoader();
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream is = loader == null ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource)) {
+            if (is == null) return null;
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int len;
+            while ((len = is.read(buf)) != -1) baos.write(buf, 0, len);
+            return baos.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Class<?>[] getParameterTypes(final Class<?> owner, final String descriptor) throws ClassNotFoundException {
+        List<Class<?>> types = new ArrayList<>();
+        int i = 1; //Skip the '('
+        while (descriptor.charAt(i) != ')') {
+            int start = i;
+            while (descriptor.charAt(i) == '[') i++;
+            if (descriptor.charAt(i) == 'L') i = descriptor.indexOf(';', i);
+            i++;
+            types.add(getType(owner, descriptor.substring(start, i)));
+        }
+        return types.toArray(new Class[0]);
+    }
+
+    private static Class<?> getType(final Class<?> owner, final String descriptor) throws ClassNotFoundException {
+        switch (descriptor.charAt(0)) {
+            case 'Z':
+                return boolean.class;
+            case 'B':
+                return byte.class;
+            case 'C':
+                return char.class;
+            case 'S':
+                return short.class;
+            case 'I':
+                return int.class;
+            case 'J':
+                return long.class;
+            case 'F':
+                return float.class;
+            case 'D':
+                return double.class;
+            case 'L':
+                return Class.forName(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'), false, owner.getClassLoader());
+            case '[':
+                return Class.forName(descriptor.replace('/', '.'), false, owner.getClassLoader());
+            default:
+                throw new ClassNotFoundException(descriptor);
+        }
+    }
+
+
+    /**
+     * The annotated members found in a class file.
+     */
+    private static class Members {
+        private static final Members EMPTY = new Members(Collections.emptyList(), Collections.emptyList());
+        private static final Members UNAVAILABLE = new Members(Collections.emptyList(), Collections.emptyList());
+
+        private final List<String[]> methods;
+        private final List<String> fields;
+
+        private Members(final List<String[]> methods, final List<String> fields) {
+            this.methods = methods;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * A minimal class file parser which only reads the parts required to find annotated members.
+     */
+    private static class Parser {
+        private final byte[] bytes;
+        private int[] constants;
+        private int annotationIndex;
+        private int pos;
+
+        private Parser(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private Members parse() throws IOException {
+            if (this.readInt() != 0xCAFEBABE) throw new IOException("Invalid class file magic");
+            this.pos += 4; //Minor and major version
+            this.readConstantPool();
+            if (this.annotationIndex == 0) return Members.EMPTY; //The annotation is not referenced by the class
+
+            this.pos += 6; //Access flags, this class and super class
+            int interfaces = this.readShort();
+            this.pos += interfaces * 2;
+            List<String> fields = new ArrayList<>();
+            int fieldCount = this.readShort();
+            for (int i = 0; i < fieldCount; i++) {
+                String[] field = this.readMember();
+                if (field != null) fields.add(field[0]);
+            }
+            List<String[]> methods = new ArrayList<>();
+            int methodCount = this.readShort();
+            for (int i = 0; i < methodCount; i++) {
+                String[] method = this.readMember();
+                if (method != null) methods.add(method);
+            }
+            return new Members(methods, fields);
+        }
+
+        private void readConstantPool() throws IOException {
+            int count = this.readShort();
+            this.constants = new int[count];
+            for (int i = 1; i < count; i++) {
+                this.constants[i] = this.pos;
+                int tag = this.bytes[this.pos++];
+                switch (tag) {
+                    case 1: //Utf8
+                        int length = this.readShort();
+                        if (this.annotationIndex == 0 && this.isAnnotationDescriptor(this.pos, length)) this.annotationIndex = i;
+                        this.pos += length;
+                        break;
+                    case 7: //Class
+                    case 8: //String
+                    case 16: //MethodType
+                    case 19: //Module
+                    case 20: //Package
+                        this.pos += 2;
+                        break;
+                    case 15: //MethodHandle
+                        this.pos += 3;
+                        break;
+                    case 3: //Integer
+                    case 4: //Float
+                    case 9: //Fieldref
+                    case 10: //Methodref
+                    case 11: //InterfaceMethodref
+                    case 12: //NameAndType
+                    case 17: //Dynamic
+                    case 18: //InvokeDynamic
+                        this.pos += 4;
+                        break;
+                    case 5: //Long
+                    case 6: //Double
+                        this.pos += 8;
+                        i++; //Long and double constants take two slots
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        @Nullable
+        private String[] readMember() throws IOException {
+            this.pos += 2; //Access flags
+            int name = this.readShort();
+            int descriptor = this.readShort();
+            boolean annotated = false;
+            int attributeCount = this.readShort();
+            for (int i = 0; i < attributeCount; i++) {
+                int attributeName = this.readShort();
+                int length = this.readInt();
+                int end = this.pos + length;
+                if (!annotated && this.utf8Equals(attributeName, RUNTIME_VISIBLE_ANNOTATIONS)) annotated = this.hasAnnotation();
+                this.pos = end;
+            }
+            if (!annotated) return null;
+            return new String[]{this.readUtf8(name), this.readUtf8(descriptor)};
+        }
+
+        private boolean hasAnnotation() {
+            int count = this.readShort();
+            for (int i = 0; i < count; i++) {
+                if (this.readShort() == this.annotationIndex) return true;
+                this.pos -= 2;
+                this.skipAnnotation();
+            }
+            return false;
+        }
+
+        private void skipAnnotation() {
+            this.pos += 2; //Type
+            int pairs = this.readShort();
+            for (int i = 0; i < pairs; i++) {
+                this.pos += 2; //Name
+                this.skipElementValue();
+            }
+        }
+
+        private void skipElementValue() {
+            int tag = this.bytes[this.pos++];
+            switch (tag) {
+                case 'e': //Enum
+                    this.pos += 4;
+                    break;
+                case '@': //Annotation
+                    this.skipAnnotation();
+                    break;
+                case '[': //Array
+                    int count = this.readShort();
+                    for (int i = 0; i < count; i++) this.skipElementValue();
+                    break;
+                default: //Constants and classes
+                    this.pos += 2;
+                    break;
+            }
+        }
+
+        private boolean isAnnotationDescriptor(final int offset, final int length) {
+            if (length != ANNOTATION_DESCRIPTOR.length) return false;
+            for (int i = 0; i < length; i++) {
+                if (this.bytes[offset + i] != ANNOTATION_DESCRIPTOR[i]) return false;
+            }
+            return true;
+        }
+
+        private boolean utf8Equals(final int index, final String value) {
+            int offset = this.constants[index];
+            if (this.bytes[offset] != 1) return false;
+            int length = ((this.bytes[offset + 1] & 0xFF) << 8) | (this.bytes[offset + 2] & 0xFF);
+            return length == value.length() && new String(this.bytes, offset + 3, length, StandardCharsets.ISO_8859_1).equals(value);
+        }
+
+        private String readUtf8(final int index) throws IOException {
+            int offset = this.constants[index];
+            if (this.bytes[offset] != 1) throw new IOException("Constant " + index + " is not a Utf8 constant");
+            int length = ((this.bytes[offset + 1] & 0xFF) << 8) | (this.bytes[offset + 2] & 0xFF);
+            //Class files use modified UTF-8
+            char[] chars = new char[length];
+            int count = 0;
+            int i = offset + 3;
+            int end = i + length;
+            while (i < end) {
+                int b = this.bytes[i++] & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                } else if ((b & 0xE0) == 0xC0) {
+                    chars[count++] = (char) (((b & 0x1F) << 6) | (this.bytes[i++] & 0x3F));
+                } else if ((b & 0xF0) == 0xE0) {
+                    chars[count++] = (char) (((b & 0x0F) << 12) | ((this.bytes[i++] & 0x3F) << 6) | (this.bytes[i++] & 0x3F));
+                } else {
+                    throw new UTFDataFormatException("Invalid modified UTF-8 in constant " + index);
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private int readShort() {
+            return ((this.bytes[this.pos++] & 0xFF) << 8) | (this.bytes[this.pos++] & 0xFF);
+        }
+
+        private int readInt() {
+            return (this.readShort() << 16) | this.readShort();
+        }
+    }
+
+}
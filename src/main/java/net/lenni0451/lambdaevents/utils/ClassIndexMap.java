@@ -0,0 +1,165 @@
+package net.lenni0451.lambdaevents.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A {@link Map} implementation which stores the values in an array indexed by a small integer id of the key class.<br>
+ * The ids belong to this map only. They are assigned when a key is added and reused after the key was removed,
+ * so the table only grows to the amount of keys which are in the map at the same time.<br>
+ * Reading is lock free and only requires a {@link ClassValue} lookup and an array access. Writing copies the table and publishes it afterwards,
+ * so the table can grow without blocking readers.<br>
+ * The {@link ClassValue} only holds a mutable id for every class, so ids can be assigned and released without removing {@link ClassValue} entries.<br>
+ * This map does not support {@code null} values.
+ *
+ * @param <V> The type of the values
+ */
+public class ClassIndexMap<V> extends AbstractMap<Class<?>, V> {
+
+    private static final Table EMPTY = new Table(new Class[0], new Object[0]);
+    private static final int UNASSIGNED = -1;
+
+    private final Map<Class<?>, Integer> assigned = new HashMap<>();
+    private final BitSet usedIds = new BitSet();
+    private final ClassValue<Id> ids = new ClassValue<Id>() {
+        @Override
+        protected Id computeValue(final Class<?> type) {
+            //The id is only changed while holding the lock of the map, all threads see the same holder
+            return new Id();
+        }
+    };
+    private volatile Table table = EMPTY;
+
+    @Nullable
+    @Override
+    public V get(final Object key) {
+        if (!(key instanceof Class)) return null;
+        //The id is published after the table, so the table contains the key if the id was read
+        int id = this.ids.get((Class<?>) key).id;
+        Table table = this.table;
+        //The id could belong to another key if it was reused after the read, the key has to be compared
+        if (id < 0 || id >= table.keys.length || table.keys[id] != key) return null;
+        return (V) table.values[id];
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.get(key) != null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized V put(@Nonnull final Class<?> key, @Nonnull final V value) {
+        Objects.requireNonNull(value, "value");
+        Table table = this.table;
+        Integer id = this.assigned.get(key);
+        if (id != null) {
+            //Replace the value of an existing key
+            Object[] newValues = table.values.clone();
+            V old = (V) newValues[id];
+            newValues[id] = value;
+            this.table = new Table(table.keys, newValues);
+            return old;
+        }
+
+        id = this.usedIds.nextClearBit(0); //Reuse the lowest free id
+        int length = Math.max(table.keys.length, id + 1);
+        Class<?>[] newKeys = Arrays.copyOf(table.keys, length);
+        Object[] newValues = Arrays.copyOf(table.values, length);
+        newKeys[id] = key;
+        newValues[id] = value;
+        this.usedIds.set(id);
+        this.assigned.put(key, id);
+        this.table = new Table(newKeys, newValues);
+        this.ids.get(key).id = id;
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized V remove(final Object key) {
+        if (!(key instanceof Class)) return null;
+        Integer id = this.assigned.remove(key);
+        if (id == null) return null;
+        Table table = this.table;
+        V old = (V) table.values[id];
+        this.ids.get((Class<?>) key).id = UNASSIGNED; //Unpublish the id before the table changes
+        this.usedIds.clear(id);
+        //Shrink the table if the highest ids are free
+        int length = this.usedIds.length();
+        Class<?>[] newKeys = Arrays.copyOf(table.keys, length);
+        Object[] newValues = Arrays.copyOf(table.values, length);
+        if (id < length) {
+            newKeys[id] = null;
+            newValues[id] = null;
+        }
+        this.table = new Table(newKeys, newValues);
+        return old;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (Class<?> key : this.assigned.keySet()) this.ids.get(key).id = UNASSIGNED;
+        this.assigned.clear();
+        this.usedIds.clear();
+        this.table = EMPTY;
+    }
+
+    @Override
+    public int size() {
+        Table table = this.table;
+        int size = 0;
+        for (Class<?> key : table.keys) {
+            if (key != null) size++;
+        }
+        return size;
+    }
+
+    /**
+     * @return The length of the table, which is the highest id in use plus one
+     */
+    public int getTableLength() {
+        return this.table.keys.length;
+    }
+
+    /**
+     * Get a snapshot of all entries in this map.<br>
+     * Changes to the map are not reflected in the returned set.
+     *
+     * @return The entry set
+     */
+    @Nonnull
+    @Override
+    public Set<Entry<Class<?>, V>> entrySet() {
+        Table table = this.table;
+        Set<Entry<Class<?>, V>> entries = new LinkedHashSet<>();
+        for (int i = 0; i < table.keys.length; i++) {
+            if (table.keys[i] == null) continue;
+            entries.add(new SimpleImmutableEntry<>(table.keys[i], (V) table.values[i]));
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+
+
+    /**
+     * The id of a class in this map or {@link #UNASSIGNED} if the class is not in the map.
+     */
+    private static class Id {
+        private volatile int id = UNASSIGNED;
+    }
+
+    /**
+     * The keys and values are published together, so a reader never sees a value of another key.
+     */
+    private static class Table {
+        private final Class<?>[] keys;
+        private final Object[] values;
+
+        private Table(final Class<?>[] keys, final Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+    }
+
+}
@@ -1,16 +1,22 @@
 package net.lenni0451.lambdaevents.utils;
 
 import lombok.Data;
+import lombok.SneakyThrows;
 import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.guard.*;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -28,6 +34,23 @@ public class EventUtils {
      */
     @Nonnull
     public static List<MethodHandler> getMethods(final Class<?> owner, final Predicate<Method> accept, final boolean registerSuperHandler) {
+        return getMethods(owner, accept, registerSuperHandler, false);
+    }
+
+    /**
+     * Get all methods of the given class which are annotated with {@link EventHandler}.<br>
+     * This method does not verify if the methods are valid.<br>
+     * If {@code scanClassFiles} is true, the {@link ClassFileScanner} is used to only reflect the annotated methods.
+     * Classes without an available class file are still scanned using reflection.
+     *
+     * @param owner                The class to get the methods from
+     * @param accept               If the method should be accepted
+     * @param registerSuperHandler If the super methods should be registered
+     * @param scanClassFiles       If the class files should be read to find the annotated methods
+     * @return The list of all found methods
+     */
+    @Nonnull
+    public static List<MethodHandler> getMethods(final Class<?> owner, final Predicate<Method> accept, final boolean registerSuperHandler, final boolean scanClassFiles) {
         List<MethodHandler> handler = new ArrayList<>();
         Set<Class<?>> classes = new LinkedHashSet<>();
         //Only get all super classes if registerSuperHandler is true
@@ -36,7 +59,9 @@ public class EventUtils {
 
         Set<MethodID> methodIDs = new HashSet<>();
         for (Class<?> current : classes) {
-            for (Method method : current.getDeclaredMethods()) {
+            Method[] methods = scanClassFiles ? ClassFileScanner.getAnnotatedMethods(current) : null;
+            if (methods == null) methods = current.getDeclaredMethods();
+            for (Method method : methods) {
                 EventHandler annotation = method.getDeclaredAnnotation(EventHandler.class);
                 if (annotation == null) continue; //Doesn't have the annotation
                 if (!accept.test(method)) continue; //Doesn't match the predicate
@@ -60,6 +85,23 @@ public class EventUtils {
      */
     @Nonnull
     public static List<FieldHandler> getFields(final Class<?> owner, final Predicate<Field> accept, final boolean registerSuperHandler) {
+        return getFields(owner, accept, registerSuperHandler, false);
+    }
+
+    /**
+     * Get all fields of the given class which are annotated with {@link EventHandler}.<br>
+     * This method does not verify if the fields are valid.<br>
+     * If {@code scanClassFiles} is true, the {@link ClassFileScanner} is used to only reflect the annotated fields.
+     * Classes without an available class file are still scanned using reflection.
+     *
+     * @param owner                The class to get the fields from
+     * @param accept               If the field should be accepted
+     * @param registerSuperHandler If the super fields should be registered
+     * @param scanClassFiles       If the class files should be read to find the annotated fields
+     * @return The list of all found fields
+     */
+    @Nonnull
+    public static List<FieldHandler> getFields(final Class<?> owner, final Predicate<Field> accept, final boolean registerSuperHandler, final boolean scanClassFiles) {
         List<FieldHandler> handler = new ArrayList<>();
         Set<Class<?>> classes = new LinkedHashSet<>();
         //Only get all super classes if registerSuperHandler is true
@@ -67,7 +109,9 @@ public class EventUtils {
         else classes.add(owner);
 
         for (Class<?> current : classes) {
-            for (Field field : current.getDeclaredFields()) {
+            Field[] fields = scanClassFiles ? ClassFileScanner.getAnnotatedFields(current) : null;
+            if (fields == null) fields = current.getDeclaredFields();
+            for (Field field : fields) {
                 EventHandler annotation = field.getDeclaredAnnotation(EventHandler.class);
                 if (annotation == null) continue; //Doesn't have the annotation
                 if (!accept.test(field)) continue; //Doesn't match the predicate
@@ -95,7 +139,26 @@ public class EventUtils {
             //Native methods should not be invoked
             throw new IllegalStateException("Method '" + method.getName() + "' in class '" + owner.getName() + "' is native");
         }
-        if (annotation.events().length == 0 && method.getParameterCount() != 1) {
+        if (annotation.batch()) {
+            //Batch handlers need a list or an array parameter and can have virtual events
+            Class<?>[] params = method.getParameterTypes();
+            if (params.length != 1 || (!params[0].equals(List.class) && (!params[0].isArray() || params[0].getComponentType().isPrimitive()))) {
+                throw new IllegalStateException("Method '" + method.getName() + "' in class '" + owner.getName() + "' is a batch handler and does not take a List or an array as the only parameter");
+            }
+            if (annotation.events().length == 0 && getBatchEvent(method) == null) {
+                throw new IllegalStateException("Method '" + method.getName() + "' in class '" + owner.getName() + "' is a batch handler and has no virtual events or list type argument");
+            }
+            Class<?> elementType = getBatchEvent(method);
+            for (Class<?> event : annotation.events()) {
+                //The virtual events have to fit into the array or list passed to the handler
+                if (elementType != null && !elementType.isAssignableFrom(event)) {
+                    throw new IllegalStateException("Method '" + method.getName() + "' in class '" + owner.getName() + "' is a batch handler and the virtual event '" + event.getName() + "' is not a '" + elementType.getName() + "'");
+                }
+            }
+            if (annotation.batchSize() < 0 || annotation.batchWindow() < 0) {
+                throw new IllegalStateException("Method '" + method.getName() + "' in class '" + owner.getName() + "' has a negative batch size or window");
+            }
+        } else if (annotation.events().length == 0 && method.getParameterCount() != 1) {
             //No virtual events and not exactly 1 parameter
             throw new IllegalStateException("Method '" + method.getName() + "' in class '" + owner.getName() + "' has no virtual events and not exactly 1 parameter");
         } else if (annotation.events().length > 0 && method.getParameterCount() != 0) {
@@ -152,17 +215,42 @@ public class EventUtils {
      */
     @Nonnull
     public static Class<?>[] getEvents(final EventHandler annotation, final Method method, final Predicate<Class<?>> accept) {
-        if (method.getParameterCount() == 1) {
+        if (annotation.batch() && annotation.events().length == 0) {
+            //The event type of batch handlers is the type of the list or array elements
+            Class<?> event = getBatchEvent(method);
+            if (event == null || !accept.test(event)) return new Class[0];
+            return new Class<?>[]{event};
+        } else if (annotation.batch() || method.getParameterCount() == 0) {
+            //The method has no parameters or is a batch handler, so we need to get the virtual events
+            return Arrays.stream(annotation.events()).filter(accept).toArray(Class[]::new);
+        } else {
             //The method has one parameter, so it has to be the event
             Class<?> param = method.getParameterTypes()[0];
             if (!accept.test(param)) return new Class[0];
             return new Class<?>[]{param};
-        } else {
-            //The method has no parameters, so we need to get the virtual events
-            return Arrays.stream(annotation.events()).filter(accept).toArray(Class[]::new);
         }
     }
 
+    /**
+     * Get the event type of the given batch handler method.<br>
+     * This is the component type of an array parameter or the type argument of a list parameter.
+     *
+     * @param method The batch handler method
+     * @return The event type or {@code null} if it can't be determined
+     */
+    @Nullable
+    public static Class<?> getBatchEvent(final Method method) {
+        Class<?> param = method.getParameterTypes()[0];
+        if (param.isArray()) return param.getComponentType();
+        Type type = method.getGenericParameterTypes()[0];
+        if (type instanceof ParameterizedType) {
+            //Only accept real classes as type arguments, wildcards and type variables can't be resolved
+            Type typeArgument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (typeArgument instanceof Class) return (Class<?>) typeArgument;
+        }
+        return null;
+    }
+
     /**
      * Get all events handled by the given field.
      *
@@ -186,6 +274,82 @@ public class EventUtils {
         return events.stream().filter(accept).toArray(Class[]::new);
     }
 
+    /**
+     * Resolve all guards declared in the given {@link EventHandler} annotation.<br>
+     * Duplicate guards are removed.
+     *
+     * @param lookup     The lookup used to access the predicate methods and state members, it is resolved using {@link LookupUtils}
+     * @param owner      The owner of the handler
+     * @param annotation The {@link EventHandler} annotation of the handler
+     * @param event      The event class the handler is registered for
+     * @return The resolved guards
+     * @throws IllegalStateException If a guard could not be resolved
+     */
+    @Nonnull
+    public static Guard[] getGuards(final MethodHandles.Lookup lookup, final Class<?> owner, final EventHandler annotation, final Class<?> event) {
+        if (annotation.requireTypes().length == 0 && annotation.guards().length == 0 && annotation.requireState().length == 0) return Guard.NONE;
+        Set<Guard> guards = new LinkedHashSet<>();
+        for (Class<?> type : annotation.requireTypes()) guards.add(new TypeGuard(type));
+        for (String reference : annotation.guards()) guards.add(getPredicateGuard(lookup, owner, reference, event));
+        for (String state : annotation.requireState()) guards.add(getStateGuard(lookup, owner, state, event));
+        if (guards.size() > GuardSet.MAX_GUARDS) {
+            //The guard results are stored in a long bit mask
+            throw new IllegalStateException("Handler in class '" + owner.getName() + "' has more than " + GuardSet.MAX_GUARDS + " guards");
+        }
+        return guards.toArray(Guard.NONE);
+    }
+
+    private static PredicateGuard getPredicateGuard(final MethodHandles.Lookup lookup, final Class<?> owner, final String reference, final Class<?> event) {
+        Class<?> clazz = owner;
+        String name = reference;
+        int separator = reference.indexOf('#');
+        if (separator != -1) {
+            //The guard is declared in another class
+            try {
+                clazz = Class.forName(reference.substring(0, separator), false, owner.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Guard class '" + reference.substring(0, separator) + "' used in class '" + owner.getName() + "' not found", e);
+            }
+            name = reference.substring(separator + 1);
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (!method.getName().equals(name)) continue;
+            if (!Modifier.isStatic(method.getModifiers()) || !method.getReturnType().equals(boolean.class)) continue;
+            if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(event)) continue;
+            return new PredicateGuard(method, toPredicate(lookup, method, resolved -> resolved.unreflect(method)));
+        }
+        throw new IllegalStateException("Guard '" + reference + "' used in class '" + owner.getName() + "' is not a static boolean method accepting '" + event.getName() + "'");
+    }
+
+    private static StateGuard getStateGuard(final MethodHandles.Lookup lookup, final Class<?> owner, final String state, final Class<?> event) {
+        boolean expected = !state.startsWith("!");
+        String name = expected ? state : state.substring(1);
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        getSuperClasses(classes, event);
+        for (Class<?> clazz : classes) {
+            //Search for a method first since most events use getters
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (!method.getName().equals(name) || Modifier.isStatic(method.getModifiers())) continue;
+                if (method.getParameterCount() != 0 || !method.getReturnType().equals(boolean.class)) continue;
+                return new StateGuard(method, expected, toPredicate(lookup, method, resolved -> resolved.unreflect(method)));
+            }
+        }
+        for (Class<?> clazz : classes) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!field.getName().equals(name) || Modifier.isStatic(field.getModifiers())) continue;
+                if (!field.getType().equals(boolean.class)) continue;
+                return new StateGuard(field, expected, toPredicate(lookup, field, resolved -> resolved.unreflectGetter(field)));
+            }
+        }
+        throw new IllegalStateException("State '" + name + "' required in class '" + owner.getName() + "' is not a boolean field or method of '" + event.getName() + "'");
+    }
+
+    @SneakyThrows
+    private static MethodHandle toPredicate(final MethodHandles.Lookup lookup, final Member member, final HandleSupplier handleSupplier) {
+        MethodHandles.Lookup resolved = LookupUtils.resolveLookup(lookup, member.getDeclaringClass()); //Resolve the lookup that it can access the member
+        return handleSupplier.get(resolved).asType(MethodType.methodType(boolean.class, Object.class));
+    }
+
     /**
      * Create a new {@link EventHandler} instance with the given priority.
      *
@@ -214,6 +378,36 @@ public class EventUtils {
             public boolean handleCancelled() {
                 return true;
             }
+
+            @Override
+            public Class<?>[] requireTypes() {
+                return new Class[0];
+            }
+
+            @Override
+            public String[] guards() {
+                return new String[0];
+            }
+
+            @Override
+            public String[] requireState() {
+                return new String[0];
+            }
+
+            @Override
+            public boolean batch() {
+                return false;
+            }
+
+            @Override
+            public int batchSize() {
+                return 0;
+            }
+
+            @Override
+            public long batchWindow() {
+                return 0;
+            }
         };
     }
 
@@ -269,6 +463,11 @@ public class EventUtils {
     }
 
 
+    @FunctionalInterface
+    private interface HandleSupplier {
+        MethodHandle get(final MethodHandles.Lookup lookup) throws Throwable;
+    }
+
     /**
      * A class to identify a method by its name and parameters.
      */
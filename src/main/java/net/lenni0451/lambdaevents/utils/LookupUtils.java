@@ -3,20 +3,31 @@ package net.lenni0451.lambdaevents.utils;
 import lombok.SneakyThrows;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
 /**
- * Various utils for {@link MethodHandles.Lookup}.
+ * Various utils for {@link MethodHandles.Lookup}.<br>
+ * The lookups are cached without preventing classes or class loaders from being unloaded:<br>
+ * - The lookup of a class loader is only weakly referenced by the cache and kept alive by the lookups resolved with it<br>
+ * - Resolved lookups are attached to the accessed class using a {@link ClassValue}
  */
 public class LookupUtils {
 
-    private static final Map<ClassLoader, LookupGetterLoader> loaders = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<ClassLoader, WeakReference<LookupGetterLoader>> loaders = new WeakHashMap<>();
+    private static final ClassValue<ResolvedLookups> resolved = new ClassValue<ResolvedLookups>() {
+        @Override
+        protected ResolvedLookups computeValue(final Class<?> type) {
+            return new ResolvedLookups();
+        }
+    };
 
     /**
      * Get a {@link MethodHandles.Lookup} in the given {@link ClassLoader}.<br>
@@ -26,9 +37,33 @@ public class LookupUtils {
      * @return The lookup
      */
     @Nonnull
-    @SneakyThrows
     public static MethodHandles.Lookup getIn(final ClassLoader classLoader) {
-        LookupGetterLoader loader = loaders.computeIfAbsent(classLoader, LookupGetterLoader::new);
+        LookupGetterLoader loader;
+        synchronized (loaders) {
+            WeakReference<LookupGetterLoader> reference = loaders.get(classLoader);
+            loader = reference == null ? null : reference.get();
+            if (loader == null) {
+                loader = new LookupGetterLoader(classLoader);
+                loaders.put(classLoader, new WeakReference<>(loader));
+            }
+        }
+        return loader.getLookup();
+    }
+
+    /**
+     * Release the lookup cached for the given {@link ClassLoader}.<br>
+     * Lookups which were already resolved using it stay cached with the accessed classes.
+     *
+     * @param classLoader The class loader to release
+     */
+    public static void release(final ClassLoader classLoader) {
+        synchronized (loaders) {
+            loaders.remove(classLoader);
+        }
+    }
+
+    @SneakyThrows
+    private static Class<?> getLookupGetter(final LookupGetterLoader loader) {
         Class<?> lookupGetter;
         if (!loader.isDefined(LookupGetter.class.getName())) {
             //If the class is not defined we need to get its bytes and define it
@@ -44,7 +79,7 @@ public class LookupUtils {
             //If the class is already defined we can just load it
             lookupGetter = loader.loadClass(LookupGetter.class.getName());
         }
-        return (MethodHandles.Lookup) lookupGetter.getDeclaredMethod("get").invoke(null); //Invoke the get() method and return the lookup
+        return lookupGetter;
     }
 
     /**
@@ -56,7 +91,18 @@ public class LookupUtils {
      * @throws IllegalStateException If the lookup can't be resolved to access the given class
      */
     @Nonnull
-    public static MethodHandles.Lookup resolveLookup(MethodHandles.Lookup lookup, final Class<?> accessed) {
+    public static MethodHandles.Lookup resolveLookup(final MethodHandles.Lookup lookup, final Class<?> accessed) {
+        ResolvedLookups lookups = resolved.get(accessed);
+        MethodHandles.Lookup resolvedLookup = lookups.get(lookup);
+        if (resolvedLookup == null) {
+            //Failed resolutions are not cached, they throw an exception every time
+            resolvedLookup = resolve(lookup, accessed);
+            lookups.put(lookup, resolvedLookup);
+        }
+        return resolvedLookup;
+    }
+
+    private static MethodHandles.Lookup resolve(MethodHandles.Lookup lookup, final Class<?> accessed) {
         if (canAccess(lookup, accessed)) return lookup;
         lookup = lookup.in(accessed); //Try to get a lookup in the accessed class
         if (canAccess(lookup, accessed)) return lookup;
@@ -111,10 +157,26 @@ public class LookupUtils {
             ClassLoader.registerAsParallelCapable();
         }
 
+        private volatile MethodHandles.Lookup lookup;
+
         protected LookupGetterLoader(final ClassLoader parent) {
             super(parent);
         }
 
+        @SneakyThrows
+        protected MethodHandles.Lookup getLookup() {
+            if (this.lookup == null) {
+                synchronized (this.getClassLoadingLock(LookupGetter.class.getName())) {
+                    //Check and define the class atomically, otherwise parallel registrations could define it twice
+                    if (this.lookup == null) {
+                        Class<?> lookupGetter = getLookupGetter(this);
+                        this.lookup = (MethodHandles.Lookup) lookupGetter.getDeclaredMethod("get").invoke(null); //Invoke the get() method and cache the lookup
+                    }
+                }
+            }
+            return this.lookup;
+        }
+
         @Override
         protected Object getClassLoadingLock(final String name) {
             return super.getClassLoadingLock(name);
@@ -135,4 +197,23 @@ public class LookupUtils {
         }
     }
 
+    private static class ResolvedLookups {
+        //The base lookup classes are weakly referenced and the values never reference them, so they don't prevent them from being unloaded
+        private final Map<Class<?>, Map<Integer, MethodHandles.Lookup>> lookups = new WeakHashMap<>();
+
+        @Nullable
+        private synchronized MethodHandles.Lookup get(final MethodHandles.Lookup base) {
+            //The resolved lookup depends on the lookup class and the access modes of the base lookup
+            Map<Integer, MethodHandles.Lookup> resolved = this.lookups.get(base.lookupClass());
+            if (resolved == null || !resolved.containsKey(base.lookupModes())) return null;
+            MethodHandles.Lookup lookup = resolved.get(base.lookupModes());
+            return lookup == null ? base : lookup; //null means that the base lookup can access the class itself
+        }
+
+        private synchronized void put(final MethodHandles.Lookup base, final MethodHandles.Lookup resolved) {
+            Map<Integer, MethodHandles.Lookup> lookups = this.lookups.computeIfAbsent(base.lookupClass(), c -> new HashMap<>());
+            lookups.put(base.lookupModes(), resolved == base ? null : resolved);
+        }
+    }
+
 }
@@ -0,0 +1,174 @@
+package net.lenni0451.lambdaevents.utils;
+
+import javax.annotation.Nonnull;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache for the parent classes and interfaces of event classes.<br>
+ * The parents are stored using a {@link ClassValue}, so the cache does not prevent event classes (and their class loaders) from being unloaded.<br>
+ * Optionally the amount of cached classes can be limited, the oldest entries are evicted first.
+ */
+public class ParentsCache {
+
+    private final ClassValue<Class<?>[]> parents = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(final Class<?> type) {
+            ParentsCache.this.misses.increment();
+            Set<Class<?>> parents = new LinkedHashSet<>();
+            EventUtils.getSuperClasses(parents, type);
+            ParentsCache.this.track(type);
+            return parents.toArray(new Class[0]);
+        }
+    };
+    private final Set<Reference<Class<?>>> entries = new LinkedHashSet<>();
+    private final ReferenceQueue<Class<?>> unloaded = new ReferenceQueue<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile int maxSize;
+
+    /**
+     * Create a new cache without a size limit.
+     */
+    public ParentsCache() {
+        this(0);
+    }
+
+    /**
+     * @param maxSize The maximum amount of cached classes or {@code 0} for no limit
+     */
+    public ParentsCache(final int maxSize) {
+        this.setMaxSize(maxSize);
+    }
+
+    /**
+     * Get all parent classes and interfaces of the given class (including the class itself).
+     *
+     * @param clazz The class to get the parents for
+     * @return The parents of the class
+     */
+    @Nonnull
+    public Class<?>[] get(final Class<?> clazz) {
+        this.requests.increment();
+        return this.parents.get(clazz);
+    }
+
+    /**
+     * Set the maximum amount of cached classes.<br>
+     * If the cache is bigger than the new limit, the oldest entries are evicted the next time a class is added.
+     *
+     * @param maxSize The maximum amount of cached classes or {@code 0} for no limit
+     */
+    public void setMaxSize(final int maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("The max size can't be negative");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The maximum amount of cached classes or {@code 0} if there is no limit
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * @return The amount of cached classes (unloaded classes may still be counted until the next class is added)
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * @return The amount of requests which were served from the cache
+     */
+    public long getHits() {
+        return this.requests.sum() - this.misses.sum();
+    }
+
+    /**
+     * @return The amount of requests which had to calculate the parents
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The amount of entries which were evicted because the cache was full
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Remove all cached classes.<br>
+     * The statistics are not reset.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            for (Reference<Class<?>> entry : this.entries) {
+                Class<?> clazz = entry.get();
+                if (clazz != null) this.parents.remove(clazz);
+            }
+            this.entries.clear();
+        }
+    }
+
+    private void track(final Class<?> clazz) {
+        synchronized (this.entries) {
+            Reference<? extends Class<?>> reference;
+            while ((reference = this.unloaded.poll()) != null) {
+                //Remove all classes which have been unloaded
+                this.entries.remove(reference);
+            }
+            //The parents of a class can be calculated multiple times if threads race, only track the class once
+            if (!this.entries.add(new ClassReference(clazz, this.unloaded))) return;
+
+            int maxSize = this.maxSize;
+            if (maxSize == 0) return;
+            Iterator<Reference<Class<?>>> it = this.entries.iterator();
+            while (this.entries.size() > maxSize && it.hasNext()) {
+                //Evict the oldest entries until the cache is small enough
+                Class<?> evicted = it.next().get();
+                it.remove();
+                if (evicted == null || evicted == clazz) continue;
+                this.parents.remove(evicted);
+                this.evictions.increment();
+            }
+        }
+    }
+
+
+    /**
+     * A weak reference which is equal to all other references of the same class as long as the class is not unloaded.
+     */
+    private static class ClassReference extends WeakReference<Class<?>> {
+        private final int hashCode;
+
+        private ClassReference(final Class<?> clazz, final ReferenceQueue<Class<?>> queue) {
+            super(clazz, queue);
+            this.hashCode = System.identityHashCode(clazz);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ClassReference)) return false;
+            Class<?> clazz = this.get();
+            return clazz != null && clazz == ((ClassReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+}
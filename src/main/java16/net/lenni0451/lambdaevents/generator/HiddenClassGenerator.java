@@ -0,0 +1,296 @@
+package net.lenni0451.lambdaevents.generator;
+
+import lombok.SneakyThrows;
+import net.lenni0451.lambdaevents.AHandler;
+import net.lenni0451.lambdaevents.EventHandler;
+import net.lenni0451.lambdaevents.IGenerator;
+import net.lenni0451.lambdaevents.utils.EventUtils;
+import net.lenni0451.lambdaevents.utils.LookupUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link IGenerator} implementation which calls the handler method using a hidden class.<br>
+ * Every handler is defined as its own hidden class with the method handle of the handler method as class data.
+ * All handler classes share the same bytecode and are defined in the package of the generator's lookup, not in the package of the handler owner.
+ * The owner is only accessed through the method handle, which is resolved using a private lookup in the owner.<br>
+ * The method handle is stored in a static final field, which allows the JIT to inline the handler method like a direct call.
+ * The hidden classes are unloaded when the handler is no longer referenced.<br>
+ * <b>Hidden classes require Java 16 or newer!</b> The implementation is part of the multi-release jar, use {@link #isSupported()} to check if it is available.
+ * On older versions {@link #create(MethodHandles.Lookup)} throws an {@link UnsupportedOperationException}.
+ */
+public class HiddenClassGenerator implements IGenerator {
+
+    private static final MethodType CALL_TYPE = MethodType.methodType(void.class, Object.class);
+
+    /**
+     * @return If hidden classes are supported by the current Java version
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+
+    /**
+     * Create a generator which uses the {@link MethodHandles.Lookup} of the current {@link ClassLoader}.
+     *
+     * @return The new generator
+     */
+    public static HiddenClassGenerator create() {
+        return create(MethodHandles.lookup());
+    }
+
+    /**
+     * @param lookup The {@link MethodHandles.Lookup} to use, the hidden classes are defined in its package
+     * @return The new generator
+     * @throws IllegalArgumentException If the lookup has no full privilege access
+     */
+    public static HiddenClassGenerator create(final MethodHandles.Lookup lookup) {
+        if (!lookup.hasFullPrivilegeAccess()) throw new IllegalArgumentException("The lookup needs full privilege access to define hidden classes");
+        return new HiddenClassGenerator(lookup);
+    }
+
+
+    private final MethodHandles.Lookup lookup;
+    private final byte[] handlerClass;
+
+    private HiddenClassGenerator(final MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+        //All handlers share the same bytecode, only the class data is different
+        this.handlerClass = new HandlerClassWriter(lookup.lookupClass().getPackageName().replace('.', '/') + "/LambdaEvents$HiddenHandler").toByteArray();
+    }
+
+    @Nonnull
+    @Override
+    public AHandler generate(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method, Class<?> arg) {
+        return this.define(owner, instance, annotation, method, this.getHandle(owner, instance, method));
+    }
+
+    @Nonnull
+    @Override
+    public AHandler generateVirtual(Class<?> owner, @Nullable Object instance, EventHandler annotation, Method method) {
+        MethodHandle handle = this.getHandle(owner, instance, method);
+        return this.define(owner, instance, annotation, method, MethodHandles.dropArguments(handle, 0, Object.class)); //Ignore the event
+    }
+
+    @SneakyThrows
+    private MethodHandle getHandle(final Class<?> owner, @Nullable final Object instance, final Method method) {
+        MethodHandle handle = this.resolveLookup(owner).unreflect(method); //Resolve the lookup that it can access the method and unreflect it
+        if (instance != null) handle = handle.bindTo(instance); //If the handler is not static bind the instance to the method handle
+        return handle;
+    }
+
+    private MethodHandles.Lookup resolveLookup(final Class<?> owner) {
+        try {
+            //A private lookup in the owner can access all its handlers, this works for all owners in packages which are open to the lookup
+            return MethodHandles.privateLookupIn(owner, this.lookup);
+        } catch (IllegalAccessException e) {
+            return LookupUtils.resolveLookup(this.lookup, owner);
+        }
+    }
+
+    @SneakyThrows
+    private AHandler define(final Class<?> owner, @Nullable final Object instance, final EventHandler annotation, final Method method, final MethodHandle handle) {
+        List<Object> classData = List.of(handle.asType(CALL_TYPE), "hidden: " + owner.getName() + " -> " + EventUtils.toString(method));
+        //The hidden class is not strongly bound to the class loader, so it can be unloaded with the handler
+        MethodHandles.Lookup handlerLookup = this.lookup.defineHiddenClassWithClassData(this.handlerClass, classData, true);
+        return (AHandler) handlerLookup.lookupClass().getConstructor(Class.class, Object.class, EventHandler.class).newInstance(owner, instance, annotation);
+    }
+
+
+    /**
+     * A minimal class file writer for the handler class.<br>
+     * The handler class loads the method handle and its description from the class data in its static initializer.
+     * The method handle is called using {@code invokeExact}.
+     */
+    private static class HandlerClassWriter {
+        private static final String AHANDLER = AHandler.class.getName().replace('.', '/');
+        private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+        private static final String METHOD_HANDLES = "java/lang/invoke/MethodHandles";
+        private static final String LOOKUP_DESC = "Ljava/lang/invoke/MethodHandles$Lookup;";
+        private static final String CONSTRUCTOR_DESC = "(Ljava/lang/Class;Ljava/lang/Object;L" + EventHandler.class.getName().replace('.', '/') + ";)V";
+
+        private final String name;
+        private final ByteArrayOutputStream constantPool = new ByteArrayOutputStream();
+        private final DataOutputStream pool = new DataOutputStream(this.constantPool);
+        private final Map<String, Integer> constants = new HashMap<>();
+        private int constantCount = 1;
+
+        private HandlerClassWriter(final String name) {
+            this.name = name;
+        }
+
+        @SneakyThrows
+        private byte[] toByteArray() {
+            int thisClass = this.classConstant(this.name);
+            int superClass = this.classConstant(AHANDLER);
+            int handleField = this.memberConstant(9, this.name, "handle", "L" + METHOD_HANDLE + ";");
+            int descriptionField = this.memberConstant(9, this.name, "description", "Ljava/lang/String;");
+
+            ByteArrayOutputStream fieldsBytes = new ByteArrayOutputStream();
+            DataOutputStream fields = new DataOutputStream(fieldsBytes);
+            fields.writeShort(2);
+            this.writeField(fields, "handle", "L" + METHOD_HANDLE + ";");
+            this.writeField(fields, "description", "Ljava/lang/String;");
+
+            ByteArrayOutputStream methodsBytes = new ByteArrayOutputStream();
+            DataOutputStream methods = new DataOutputStream(methodsBytes);
+            methods.writeShort(4);
+            {
+                //The constructor only calls the super constructor
+                ByteArrayOutputStream code = new ByteArrayOutputStream();
+                code.write(0x2A); //aload_0 (this)
+                code.write(0x2B); //aload_1 (owner)
+                code.write(0x2C); //aload_2 (instance)
+                code.write(0x2D); //aload_3 (annotation)
+                this.writeInstruction(code, 0xB7, this.memberConstant(10, AHANDLER, "<init>", CONSTRUCTOR_DESC)); //invokespecial AHandler.<init>
+                code.write(0xB1); //return
+                this.writeMethod(methods, 0x0001, "<init>", CONSTRUCTOR_DESC, 4, 4, code.toByteArray());
+            }
+            {
+                //Call the method handle with the event
+                ByteArrayOutputStream code = new ByteArrayOutputStream();
+                this.writeInstruction(code, 0xB2, handleField); //getstatic handle
+                code.write(0x2B); //aload_1 (event)
+                this.writeInstruction(code, 0xB6, this.memberConstant(10, METHOD_HANDLE, "invokeExact", "(Ljava/lang/Object;)V")); //invokevirtual MethodHandle.invokeExact
+                code.write(0xB1); //return
+                this.writeMethod(methods, 0x0001, "call", "(Ljava/lang/Object;)V", 2, 2, code.toByteArray());
+            }
+            {
+                //Return the description
+                ByteArrayOutputStream code = new ByteArrayOutputStream();
+                this.writeInstruction(code, 0xB2, descriptionField); //getstatic description
+                code.write(0xB0); //areturn
+                this.writeMethod(methods, 0x0001, "toString", "()Ljava/lang/String;", 1, 1, code.toByteArray());
+            }
+            {
+                //Load the method handle and the description from the class data
+                ByteArrayOutputStream code = new ByteArrayOutputStream();
+                this.loadClassData(code, 0, METHOD_HANDLE, handleField);
+                this.loadClassData(code, 1, "java/lang/String", descriptionField);
+                code.write(0xB1); //return
+                this.writeMethod(methods, 0x0008, "<clinit>", "()V", 4, 0, code.toByteArray());
+            }
+
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(classBytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0); //Minor version
+            out.writeShort(59); //Major version (Java 15)
+            out.writeShort(this.constantCount);
+            out.write(this.constantPool.toByteArray());
+            out.writeShort(0x0001 | 0x0010 | 0x0020); //public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); //Interfaces
+            out.write(fieldsBytes.toByteArray());
+            out.write(methodsBytes.toByteArray());
+            out.writeShort(0); //Class attributes
+            return classBytes.toByteArray();
+        }
+
+        private void loadClassData(final ByteArrayOutputStream code, final int index, final String type, final int field) {
+            this.writeInstruction(code, 0xB8, this.memberConstant(10, METHOD_HANDLES, "lookup", "()" + LOOKUP_DESC)); //invokestatic MethodHandles.lookup
+            this.writeInstruction(code, 0x13, this.stringConstant("_")); //ldc_w "_"
+            this.writeInstruction(code, 0x13, this.classConstant(type)); //ldc_w type
+            code.write(0x10); //bipush index
+            code.write(index);
+            this.writeInstruction(code, 0xB8, this.memberConstant(10, METHOD_HANDLES, "classDataAt", "(" + LOOKUP_DESC + "Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;")); //invokestatic MethodHandles.classDataAt
+            this.writeInstruction(code, 0xC0, this.classConstant(type)); //checkcast type
+            this.writeInstruction(code, 0xB3, field); //putstatic field
+        }
+
+        private void writeField(final DataOutputStream fields, final String name, final String descriptor) throws IOException {
+            fields.writeShort(0x0002 | 0x0008 | 0x0010); //private static final
+            fields.writeShort(this.utf8Constant(name));
+            fields.writeShort(this.utf8Constant(descriptor));
+            fields.writeShort(0); //Field attributes
+        }
+
+        private void writeMethod(final DataOutputStream methods, final int access, final String name, final String descriptor, final int maxStack, final int maxLocals, final byte[] code) throws IOException {
+            methods.writeShort(access);
+            methods.writeShort(this.utf8Constant(name));
+            methods.writeShort(this.utf8Constant(descriptor));
+            methods.writeShort(1); //Method attributes
+            methods.writeShort(this.utf8Constant("Code"));
+            methods.writeInt(12 + code.length); //Attribute length
+            methods.writeShort(maxStack);
+            methods.writeShort(maxLocals);
+            methods.writeInt(code.length);
+            methods.write(code);
+            methods.writeShort(0); //Exception table
+            methods.writeShort(0); //Code attributes
+        }
+
+        private void writeInstruction(final ByteArrayOutputStream code, final int opcode, final int index) {
+            code.write(opcode);
+            code.write(index >> 8);
+            code.write(index);
+        }
+
+        @SneakyThrows
+        private int utf8Constant(final String value) {
+            Integer index = this.constants.get("utf8:" + value);
+            if (index != null) return index;
+            this.pool.writeByte(1);
+            this.pool.writeUTF(value);
+            return this.addConstant("utf8:" + value);
+        }
+
+        @SneakyThrows
+        private int classConstant(final String name) {
+            Integer index = this.constants.get("class:" + name);
+            if (index != null) return index;
+            int nameIndex = this.utf8Constant(name);
+            this.pool.writeByte(7);
+            this.pool.writeShort(nameIndex);
+            return this.addConstant("class:" + name);
+        }
+
+        @SneakyThrows
+        private int stringConstant(final String value) {
+            Integer index = this.constants.get("string:" + value);
+            if (index != null) return index;
+            int valueIndex = this.utf8Constant(value);
+            this.pool.writeByte(8);
+            this.pool.writeShort(valueIndex);
+            return this.addConstant("string:" + value);
+        }
+
+        @SneakyThrows
+        private int memberConstant(final int tag, final String owner, final String name, final String descriptor) {
+            String key = "member:" + tag + ":" + owner + "." + name + descriptor;
+            Integer index = this.constants.get(key);
+            if (index != null) return index;
+            int ownerIndex = this.classConstant(owner);
+            int nameIndex = this.utf8Constant(name);
+            int descriptorIndex = this.utf8Constant(descriptor);
+            this.pool.writeByte(12); //NameAndType
+            this.pool.writeShort(nameIndex);
+            this.pool.writeShort(descriptorIndex);
+            int nameAndType = this.addConstant(key + ":nameAndType");
+            this.pool.writeByte(tag);
+            this.pool.writeShort(ownerIndex);
+            this.pool.writeShort(nameAndType);
+            return this.addConstant(key);
+        }
+
+        private int addConstant(final String key) {
+            int index = this.constantCount++;
+            this.constants.put(key, index);
+            return index;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.AutoGenerator;
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.MethodHandleGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoGeneratorTest {
+
+    private final List<String> called = new ArrayList<>();
+
+    @Test
+    void availableGenerators() {
+        List<IGenerator> generators = AutoGenerator.getAvailableGenerators(MethodHandles.lookup());
+        assertInstanceOf(MethodHandleGenerator.class, generators.get(generators.size() - 1));
+        assertTrue(generators.stream().anyMatch(generator -> generator instanceof LambdaMetaFactoryGenerator));
+
+        Map<String, IGenerator> reported = new HashMap<>();
+        LambdaManager manager = LambdaManager.basic(new AutoGenerator(MethodHandles.lookup(), (method, generator) -> reported.put(method.getName(), generator)));
+        manager.register(this);
+        manager.call("test");
+        assertEquals(Arrays.asList("onString", "onVirtual"), this.called);
+        assertSame(generators.get(0).getClass(), reported.get("onString").getClass()); //The fastest generator works for this class
+        assertSame(generators.get(0).getClass(), reported.get("onVirtual").getClass());
+    }
+
+    @Test
+    void fallback() throws NoSuchMethodException {
+        Method onString = AutoGeneratorTest.class.getDeclaredMethod("onString", String.class);
+        FailingGenerator failing = new FailingGenerator();
+        ReflectionGenerator reflection = new ReflectionGenerator();
+        Map<String, IGenerator> reported = new HashMap<>();
+        AutoGenerator generator = new AutoGenerator(Arrays.asList(failing, reflection), (method, used) -> reported.put(method.getName(), used));
+        assertSame(failing, generator.getGenerator(onString));
+
+        LambdaManager manager = LambdaManager.basic(generator);
+        manager.register(this);
+        manager.call("test");
+        assertEquals(Arrays.asList("onString", "onVirtual"), this.called);
+        assertSame(reflection, reported.get("onString"));
+        assertSame(reflection, reported.get("onVirtual"));
+        assertSame(reflection, generator.getGenerator(onString));
+        assertEquals(2, failing.calls); //Every method tries the failing generator once
+
+        manager.register(new AutoGeneratorTest());
+        assertEquals(2, failing.calls); //The failed generator is cached for the methods
+    }
+
+    @Test
+    void failurePerMethod() throws NoSuchMethodException {
+        Method onString = AutoGeneratorTest.class.getDeclaredMethod("onString", String.class);
+        Method onVirtual = AutoGeneratorTest.class.getDeclaredMethod("onVirtual");
+        ReflectionGenerator reflection = new ReflectionGenerator();
+        IGenerator virtualOnly = new ReflectionGenerator() {
+            @Override
+            public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+                throw new IllegalStateException();
+            }
+        };
+        AutoGenerator generator = new AutoGenerator(virtualOnly, reflection);
+        LambdaManager.basic(generator).register(this);
+        assertSame(reflection, generator.getGenerator(onString));
+        assertSame(virtualOnly, generator.getGenerator(onVirtual)); //A failing handler does not demote the other handlers of the owner
+    }
+
+    @Test
+    void noWorkingGenerator() throws NoSuchMethodException {
+        Method method = AutoGeneratorTest.class.getDeclaredMethod("onString", String.class);
+        AutoGenerator generator = new AutoGenerator(new FailingGenerator(), new FailingGenerator());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> generator.generate(AutoGeneratorTest.class, this, method.getDeclaredAnnotation(EventHandler.class), method, String.class));
+        assertEquals(2, exception.getSuppressed().length);
+        assertThrows(IllegalArgumentException.class, () -> new AutoGenerator(new IGenerator[0]));
+    }
+
+    @EventHandler(priority = 1)
+    public void onString(final String event) {
+        this.called.add("onString");
+    }
+
+    @EventHandler(events = String.class)
+    public void onVirtual() {
+        this.called.add("onVirtual");
+    }
+
+
+    private static class FailingGenerator implements IGenerator {
+        private int calls;
+
+        @Override
+        public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+            this.calls++;
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public AHandler generateVirtual(Class<?> owner, Object instance, EventHandler annotation, Method method) {
+            this.calls++;
+            throw new IllegalStateException();
+        }
+    }
+
+}
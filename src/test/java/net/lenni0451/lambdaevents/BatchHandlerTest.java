@@ -0,0 +1,169 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.*;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchHandlerTest {
+
+    private final List<List<String>> listBatches = new ArrayList<>();
+    private final List<List<Integer>> sizedBatches = new ArrayList<>();
+    private final List<String[]> arrayBatches = new ArrayList<>();
+    private final Set<List<String>> usedLists = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void flush(final LambdaManager manager) {
+        manager.register(this);
+        manager.call("a");
+        manager.call("b");
+        assertTrue(this.listBatches.isEmpty());
+        assertTrue(this.arrayBatches.isEmpty());
+
+        manager.flushBatches();
+        assertEquals(Arrays.asList(Arrays.asList("a", "b")), this.listBatches);
+        assertEquals(1, this.arrayBatches.size());
+        assertArrayEquals(new String[]{"a", "b"}, this.arrayBatches.get(0));
+
+        manager.flushBatches(); //Nothing collected
+        assertEquals(1, this.listBatches.size());
+
+        manager.call("c");
+        manager.flushBatches();
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")), this.listBatches);
+        manager.call("d");
+        manager.flushBatches();
+        assertEquals(2, this.usedLists.size()); //The lists are reused
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void batchSize(final LambdaManager manager) {
+        manager.register(this);
+        for (int i = 0; i < 5; i++) manager.call(i);
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3)), this.sizedBatches);
+        manager.flushBatches();
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Arrays.asList(4)), this.sizedBatches);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void tickDispatcher(final LambdaManager manager) {
+        manager.register(this);
+        TickDispatcher dispatcher = new TickDispatcher(manager);
+        dispatcher.post("a");
+        dispatcher.post("b");
+        dispatcher.flush();
+        assertEquals(Arrays.asList(Arrays.asList("a", "b")), this.listBatches);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unregister(final LambdaManager manager) {
+        manager.register(this);
+        manager.call("a");
+        manager.unregister(this);
+        manager.flushBatches();
+        assertTrue(this.listBatches.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void exceptionBatch(final LambdaManager manager) {
+        List<Object> handledEvents = new ArrayList<>();
+        manager.setExceptionHandler((handler, event, t) -> handledEvents.add(event));
+        manager.register(new Throwing());
+        manager.call("a");
+        manager.flushBatches();
+        assertEquals(1, handledEvents.size());
+        assertArrayEquals(new String[]{"a"}, (String[]) handledEvents.get(0));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unlockedFlush(final LambdaManager manager) throws InterruptedException {
+        Concurrent concurrent = new Concurrent(manager);
+        manager.register(concurrent);
+        manager.call("a");
+        manager.flushBatches();
+        assertTrue(concurrent.finished); //The other thread could add an event while the handler was called
+        manager.flushBatches();
+        assertEquals(Arrays.asList(Arrays.asList("a"), Arrays.asList("b")), concurrent.batches);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void invalidHandlers(final LambdaManager manager) {
+        assertThrows(IllegalStateException.class, () -> manager.register(new InvalidParameter()));
+        assertThrows(IllegalStateException.class, () -> manager.register(new UnknownType()));
+        assertThrows(IllegalStateException.class, () -> manager.register(new WrongVirtualEvent()));
+    }
+
+
+    @EventHandler(batch = true)
+    public void onStrings(final List<String> events) {
+        this.usedLists.add(events);
+        this.listBatches.add(new ArrayList<>(events));
+    }
+
+    @EventHandler(batch = true)
+    public void onStringArray(final String[] events) {
+        this.arrayBatches.add(events);
+    }
+
+    @EventHandler(batch = true, batchSize = 2)
+    public void onIntegers(final List<Integer> events) {
+        this.sizedBatches.add(new ArrayList<>(events));
+    }
+
+
+    public static class InvalidParameter {
+        @EventHandler(batch = true)
+        public void onString(final String event) {
+        }
+    }
+
+    public static class UnknownType {
+        @EventHandler(batch = true)
+        public void onEvents(final List<?> events) {
+        }
+    }
+
+    public static class WrongVirtualEvent {
+        @EventHandler(batch = true, events = Integer.class)
+        public void onStrings(final String[] events) {
+        }
+    }
+
+    public static class Throwing {
+        @EventHandler(batch = true)
+        public void onStrings(final String[] events) {
+            throw new IllegalStateException("Test");
+        }
+    }
+
+    public static class Concurrent {
+        private final LambdaManager manager;
+        private final List<List<String>> batches = new ArrayList<>();
+        private boolean finished;
+
+        public Concurrent(final LambdaManager manager) {
+            this.manager = manager;
+        }
+
+        @EventHandler(batch = true)
+        public void onStrings(final List<String> events) throws InterruptedException {
+            this.batches.add(new ArrayList<>(events));
+            if (this.batches.size() > 1) return;
+            Thread thread = new Thread(() -> this.manager.call("b"));
+            thread.start();
+            thread.join(5000);
+            this.finished = !thread.isAlive();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.utils.ClassFileScanner;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static net.lenni0451.reflect.wrapper.ASMWrapper.desc;
+import static net.lenni0451.reflect.wrapper.ASMWrapper.slash;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassFileScannerTest {
+
+    @Test
+    void annotatedMembers() throws ReflectiveOperationException {
+        Method[] methods = ClassFileScanner.getAnnotatedMethods(Listener.class);
+        assertNotNull(methods);
+        assertEquals(new HashSet<>(Arrays.asList(
+                Listener.class.getDeclaredMethod("onString", String.class),
+                Listener.class.getDeclaredMethod("onInts", int[][].class),
+                Listener.class.getDeclaredMethod("onVirtual"),
+                Listener.class.getDeclaredMethod("onStatic", Listener.class)
+        )), new HashSet<>(Arrays.asList(methods)));
+
+        Field[] fields = ClassFileScanner.getAnnotatedFields(Listener.class);
+        assertNotNull(fields);
+        assertEquals(names(Listener.class.getDeclaredField("consumer")), names(fields));
+    }
+
+    @Test
+    void noAnnotatedMembers() {
+        assertArrayEquals(new Method[0], ClassFileScanner.getAnnotatedMethods(ClassFileScannerTest.class));
+        assertArrayEquals(new Field[0], ClassFileScanner.getAnnotatedFields(ClassFileScannerTest.class));
+        assertArrayEquals(new Method[0], ClassFileScanner.getAnnotatedMethods(Object.class));
+    }
+
+    @Test
+    void noClassFile() throws ClassNotFoundException {
+        ClassLoader loader = new ClassLoader(ClassFileScannerTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(final String name) throws ClassNotFoundException {
+                if (!name.equals("GeneratedListener")) throw new ClassNotFoundException(name);
+                byte[] bytes = makeListener();
+                return this.defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        Class<?> generated = loader.loadClass("GeneratedListener");
+        assertNull(ClassFileScanner.getAnnotatedMethods(generated)); //Reflection has to be used instead
+        assertNull(ClassFileScanner.getAnnotatedFields(generated));
+    }
+
+    private static Set<String> names(final Member... members) {
+        return Arrays.stream(members).map(Member::getName).collect(Collectors.toSet());
+    }
+
+    private static byte[] makeListener() {
+        ClassWriter w = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        w.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "GeneratedListener", null, slash(Object.class), null);
+        MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "onString", desc(new Class[]{String.class}, void.class), null, null);
+        mv.visitAnnotation(desc(EventHandler.class), true).visitEnd();
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        w.visitEnd();
+        return w.toByteArray();
+    }
+
+
+    @SuppressWarnings("unused")
+    public static class Listener {
+        private static final long CONSTANT = 1L; //Long constants take two constant pool slots
+
+        @EventHandler(priority = 5, events = {String.class, Integer.class})
+        private final Consumer<Object> consumer = event -> {
+        };
+        private final Runnable notAnnotated = () -> {
+        };
+
+        @EventHandler
+        public void onString(final String event) {
+        }
+
+        public void onString(final Integer event) {
+        }
+
+        @Deprecated
+        @EventHandler(batch = true, batchSize = 10)
+        private void onInts(final int[][] events) {
+        }
+
+        @EventHandler(events = String.class, requireState = "!cancelled")
+        void onVirtual() {
+        }
+
+        @EventHandler
+        public static void onStatic(final Listener event) {
+        }
+
+        public double notAnnotated(final long a, final double b) {
+            return a + b + CONSTANT;
+        }
+    }
+
+}
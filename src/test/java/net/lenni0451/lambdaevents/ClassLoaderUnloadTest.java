@@ -0,0 +1,96 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.reflect.ClassLoaders;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.ref.WeakReference;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static net.lenni0451.reflect.wrapper.ASMWrapper.desc;
+import static net.lenni0451.reflect.wrapper.ASMWrapper.slash;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassLoaderUnloadTest {
+
+    private static byte[] makeListener(final String className) {
+        ClassWriter w = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        w.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, slash(Object.class), null);
+        {
+            MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC, "<init>", desc(new Class[0], void.class), null, null);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, slash(Object.class), "<init>", desc(new Class[0], void.class), false);
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(1, 1);
+            mv.visitEnd();
+        }
+        {
+            MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC, "virtualTest", desc(new Class[]{StringBuilder.class}, void.class), null, null);
+            mv.visitAnnotation(desc(EventHandler.class), true).visitEnd();
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitLdcInsn("virtual");
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, slash(StringBuilder.class), "append", desc(new Class[]{String.class}, StringBuilder.class), false);
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(2, 2);
+            mv.visitEnd();
+        }
+        {
+            MethodVisitor mv = w.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "staticTest", desc(new Class[]{StringBuilder.class}, void.class), null, null);
+            mv.visitAnnotation(desc(EventHandler.class), true).visitEnd();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitLdcInsn("static");
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, slash(StringBuilder.class), "append", desc(new Class[]{String.class}, StringBuilder.class), false);
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(2, 1);
+            mv.visitEnd();
+        }
+        w.visitEnd();
+        return w.toByteArray();
+    }
+
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unregisterAll(final LambdaManager manager) {
+        int[] remaining = new int[1];
+        manager.registerRunnable(() -> remaining[0]++, StringBuilder.class);
+        WeakReference<ClassLoader> loader = this.registerListener(manager);
+
+        StringBuilder called = new StringBuilder();
+        manager.call(called);
+        assertEquals("", called.toString());
+        assertEquals(2, remaining[0]); //Handlers of other class loaders are not removed
+
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ignored) {
+            }
+        }
+        assertNull(loader.get(), "The class loader was not garbage collected");
+    }
+
+    private WeakReference<ClassLoader> registerListener(final LambdaManager manager) {
+        ClassLoader loader = new ClassLoader() {
+        };
+        Class<?> clazz = ClassLoaders.defineClass(loader, null, makeListener(slash(ClassLoaderUnloadTest.class) + "$Test" + System.nanoTime()));
+        Object instance = assertDoesNotThrow(() -> clazz.getDeclaredConstructor().newInstance());
+        manager.register(clazz);
+        manager.register(instance);
+
+        StringBuilder called = new StringBuilder();
+        manager.call(called);
+        assertTrue(called.toString().contains("virtual"));
+        assertTrue(called.toString().contains("static"));
+
+        manager.unregisterAll(loader);
+        return new WeakReference<>(loader);
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenDispatcherTest {
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void call(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer(event -> called.add("low"), -1, String.class);
+        manager.registerConsumer(event -> called.add("high"), 1, String.class);
+        manager.registerConsumer(event -> called.add("object"), Object.class);
+        FrozenDispatcher dispatcher = manager.freeze();
+
+        dispatcher.call("test");
+        assertEquals(Arrays.asList("high", "low"), called);
+
+        called.clear();
+        dispatcher.callParents("test");
+        assertEquals(Arrays.asList("high", "low", "object"), called);
+
+        called.clear();
+        assertNull(dispatcher.call(Integer.class, () -> 1)); //Only parent handlers
+        assertEquals("test", dispatcher.call(String.class, () -> "test"));
+        assertEquals(Arrays.asList("high", "low"), called);
+        assertTrue(dispatcher.hasHandlers(String.class));
+        assertFalse(dispatcher.hasHandlers(Integer.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void thaw(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer(event -> called.add("first"), String.class);
+        FrozenDispatcher dispatcher = manager.freeze();
+
+        manager.registerConsumer(event -> called.add("ignored"), String.class);
+        dispatcher.call("test");
+        assertEquals(Arrays.asList("first"), called); //Changes to the manager are not visible
+
+        called.clear();
+        assertSame(manager, dispatcher.thaw());
+        dispatcher.thaw().registerConsumer(event -> called.add("second"), String.class);
+        dispatcher = dispatcher.thaw().freeze();
+        dispatcher.call("test");
+        assertEquals(Arrays.asList("first", "ignored", "second"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void alwaysCallParents(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.setAlwaysCallParents(true);
+        manager.registerConsumer(event -> called.add("object"), Object.class);
+        FrozenDispatcher dispatcher = manager.freeze();
+
+        dispatcher.call("test");
+        assertEquals(Arrays.asList("object"), called);
+        assertTrue(dispatcher.hasHandlers(String.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void eventFilter(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer(event -> called.add("string"), String.class);
+        manager.registerConsumer(event -> called.add("integer"), Integer.class);
+        manager.setEventFilter((event, type) -> type != IEventFilter.CheckType.CALL || !event.equals(Integer.class));
+        FrozenDispatcher dispatcher = manager.freeze();
+
+        dispatcher.call("test");
+        dispatcher.call(1);
+        assertEquals(Arrays.asList("string"), called);
+        assertFalse(dispatcher.hasHandlers(Integer.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void keyed(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer(event -> called.add("unkeyed"), KeyedHandlerTest.KeyedEvent.class);
+        manager.registerKeyed(KeyedHandlerTest.KeyedEvent.class, 1, 5, event -> called.add("key1"));
+        FrozenDispatcher dispatcher = manager.freeze();
+
+        dispatcher.call(new KeyedHandlerTest.KeyedEvent(1));
+        dispatcher.call(new KeyedHandlerTest.KeyedEvent(2));
+        assertEquals(Arrays.asList("key1", "unkeyed", "unkeyed"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void reentrancyPolicy(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.setReentrancyPolicy(ReentrancyPolicy.deferNested());
+        FrozenDispatcher[] dispatcher = new FrozenDispatcher[1];
+        manager.registerConsumer(event -> {
+            called.add("string");
+            dispatcher[0].call(1);
+            called.add("after");
+        }, String.class);
+        manager.registerConsumer(event -> called.add("integer"), Integer.class);
+        dispatcher[0] = manager.freeze();
+
+        dispatcher[0].call("test");
+        assertEquals(Arrays.asList("string", "after", "integer"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void reentrancyPolicySnapshot(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.setReentrancyPolicy(ReentrancyPolicy.deferNested());
+        FrozenDispatcher[] dispatcher = new FrozenDispatcher[1];
+        manager.registerConsumer(event -> {
+            called.add("string");
+            dispatcher[0].call(1);
+        }, String.class);
+        manager.registerConsumer(event -> called.add("integer"), Integer.class);
+        manager.registerConsumer(event -> called.add("object"), Object.class);
+        dispatcher[0] = manager.freeze();
+        manager.registerConsumer(event -> called.add("late string"), String.class);
+        manager.registerConsumer(event -> called.add("late integer"), Integer.class);
+
+        dispatcher[0].call("test");
+        assertEquals(Arrays.asList("string", "integer"), called); //Handlers registered after freezing are not called
+
+        called.clear();
+        dispatcher[0].callParents(1);
+        assertEquals(Arrays.asList("integer", "object"), called);
+    }
+
+}
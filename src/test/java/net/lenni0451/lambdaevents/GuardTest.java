@@ -0,0 +1,170 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.types.ICancellableEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.invoke.MethodHandles;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuardTest {
+
+    private static int predicateCalls = 0;
+
+    public static boolean isPositive(final Number number) {
+        predicateCalls++;
+        return number.intValue() > 0;
+    }
+
+
+    private int calledInteger = 0;
+    private int calledPositive = 0;
+    private int calledPositiveVirtual = 0;
+    private int calledNotCancelled = 0;
+    private int calledCancelledField = 0;
+
+    @BeforeEach
+    void reset() {
+        predicateCalls = 0;
+        this.calledInteger = 0;
+        this.calledPositive = 0;
+        this.calledPositiveVirtual = 0;
+        this.calledNotCancelled = 0;
+        this.calledCancelledField = 0;
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void requireTypes(final LambdaManager manager) {
+        manager.setGuardLookup(MethodHandles.lookup()).register(this); //The lookup is required for the private field
+        manager.callParents(1);
+        manager.callParents(1L);
+        assertEquals(1, this.calledInteger);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void sharedPredicate(final LambdaManager manager) {
+        manager.setGuardLookup(MethodHandles.lookup()).register(this); //The lookup is required for the private field
+        manager.call(5);
+        assertEquals(1, this.calledPositive);
+        assertEquals(1, this.calledPositiveVirtual);
+        assertEquals(1, predicateCalls); //The guard is shared between both handlers
+
+        manager.call(-5);
+        assertEquals(1, this.calledPositive);
+        assertEquals(1, this.calledPositiveVirtual);
+        assertEquals(2, predicateCalls);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void requireState(final LambdaManager manager) {
+        manager.setGuardLookup(MethodHandles.lookup()).register(this); //The lookup is required for the private field
+        TestEvent event = new TestEvent();
+        manager.call(event);
+        assertEquals(1, this.calledNotCancelled);
+        assertEquals(0, this.calledCancelledField);
+
+        event.cancelled = true;
+        manager.call(event);
+        assertEquals(1, this.calledNotCancelled);
+        assertEquals(1, this.calledCancelledField);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void stateChangedByHandler(final LambdaManager manager) {
+        StateListener listener = new StateListener();
+        manager.setGuardLookup(MethodHandles.lookup()).register(listener);
+        StateEvent event = manager.call(new StateEvent());
+        assertTrue(event.handled);
+        assertEquals(1, listener.calledFirst);
+        assertEquals(0, listener.calledSecond); //The first handler changed the state, the guard has to be evaluated again
+        assertEquals(1, listener.calledUnguarded);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void privateStateWithoutLookup(final LambdaManager manager) {
+        assertThrows(IllegalAccessException.class, () -> manager.register(new StateListener()));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void invalidGuard(final LambdaManager manager) {
+        assertThrows(IllegalStateException.class, () -> manager.register(new InvalidGuard()));
+    }
+
+
+    @EventHandler(requireTypes = Integer.class)
+    public void onNumber(final Number number) {
+        this.calledInteger++;
+    }
+
+    @EventHandler(guards = "isPositive")
+    public void onPositive(final Integer integer) {
+        this.calledPositive++;
+    }
+
+    @EventHandler(events = Integer.class, guards = "net.lenni0451.lambdaevents.GuardTest#isPositive", priority = -1)
+    public void onPositiveVirtual() {
+        this.calledPositiveVirtual++;
+    }
+
+    @EventHandler(requireState = "!isCancelled")
+    public void onNotCancelled(final TestEvent event) {
+        this.calledNotCancelled++;
+    }
+
+    @EventHandler(requireState = "cancelled")
+    public void onCancelledField(final TestEvent event) {
+        this.calledCancelledField++;
+    }
+
+
+    public static class TestEvent implements ICancellableEvent {
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+    }
+
+    public static class StateEvent {
+        private boolean handled;
+    }
+
+    public static class StateListener {
+        private int calledFirst = 0;
+        private int calledSecond = 0;
+        private int calledUnguarded = 0;
+
+        @EventHandler(priority = 2, requireState = "!handled")
+        public void first(final StateEvent event) {
+            this.calledFirst++;
+            event.handled = true;
+        }
+
+        @EventHandler(priority = 1)
+        public void unguarded(final StateEvent event) {
+            this.calledUnguarded++;
+        }
+
+        @EventHandler(requireState = "!handled")
+        public void second(final StateEvent event) {
+            this.calledSecond++;
+        }
+    }
+
+    public static class InvalidGuard {
+        @EventHandler(guards = "missing")
+        public void onString(final String s) {
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.HiddenClassGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class HiddenClassGeneratorTest {
+
+    private static int staticCalls;
+
+    private static void onStatic(final String s) {
+        staticCalls++;
+    }
+
+
+    private int calls;
+    private String lastEvent;
+
+    @Test
+    void unsupported() {
+        assumeFalse(HiddenClassGenerator.isSupported(), "Hidden classes are supported");
+        assertThrows(UnsupportedOperationException.class, HiddenClassGenerator::create);
+    }
+
+    @Test
+    void privateHandlers() {
+        assumeTrue(HiddenClassGenerator.isSupported(), "Hidden classes are not supported");
+        LambdaManager manager = LambdaManager.basic(HiddenClassGenerator.create());
+        manager.register(new Listener(this));
+        manager.call("Test");
+        assertEquals(2, this.calls);
+        assertEquals("Test", this.lastEvent);
+    }
+
+    @Test
+    void hiddenClass() {
+        assumeTrue(HiddenClassGenerator.isSupported(), "Hidden classes are not supported");
+        LambdaManager manager = LambdaManager.basic(HiddenClassGenerator.create());
+        manager.register(Listener.class);
+        manager.call("Test");
+        assertEquals(1, staticCalls);
+        assertTrue(manager.toString().contains("hidden: "));
+    }
+
+    @Test
+    void lookupWithoutFullPrivilege() {
+        assumeTrue(HiddenClassGenerator.isSupported(), "Hidden classes are not supported");
+        assertThrows(IllegalArgumentException.class, () -> HiddenClassGenerator.create(MethodHandles.publicLookup()));
+    }
+
+
+    private static class Listener {
+        private final HiddenClassGeneratorTest test;
+
+        private Listener(final HiddenClassGeneratorTest test) {
+            this.test = test;
+        }
+
+        @EventHandler
+        private static void onStaticEvent(final String s) {
+            onStatic(s);
+        }
+
+        @EventHandler
+        private void onEvent(final String s) {
+            this.test.calls++;
+            this.test.lastEvent = s;
+        }
+
+        @EventHandler(events = String.class)
+        private void onVirtual() {
+            this.test.calls++;
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.ASMGenerator;
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.MethodHandleGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import net.lenni0451.lambdaevents.utils.ClassIndexMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedManagerTest {
+
+    private static final String DATA_SOURCE = "net.lenni0451.lambdaevents.IndexedManagerTest#make";
+
+    public static LambdaManager[] make() {
+        return new LambdaManager[]{
+                LambdaManager.indexed(new ReflectionGenerator()),
+                LambdaManager.indexed(new MethodHandleGenerator()),
+                LambdaManager.indexed(new LambdaMetaFactoryGenerator()),
+                LambdaManager.indexed(new ASMGenerator()),
+        };
+    }
+
+
+    private int calledString = 0;
+    private int calledInteger = 0;
+
+    @BeforeEach
+    void reset() {
+        this.calledString = 0;
+        this.calledInteger = 0;
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callAndUnregister(final LambdaManager manager) {
+        manager.register(this);
+        manager.call("Test");
+        manager.call(1);
+        manager.call(1L); //No handlers registered
+        assertEquals(1, this.calledString);
+        assertEquals(1, this.calledInteger);
+
+        manager.unregisterAll(String.class);
+        manager.call("Test");
+        manager.call(1);
+        assertEquals(1, this.calledString);
+        assertEquals(2, this.calledInteger);
+
+        manager.unregister(this);
+        manager.call("Test");
+        manager.call(1);
+        assertEquals(1, this.calledString);
+        assertEquals(2, this.calledInteger);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callParents(final LambdaManager manager) {
+        boolean[] called = new boolean[2];
+        manager.registerRunnable(() -> called[0] = true, Number.class);
+        manager.registerRunnable(() -> called[1] = true, Comparable.class);
+        manager.callParents(1);
+        assertTrue(called[0]);
+        assertTrue(called[1]);
+    }
+
+    @Test
+    void growTable() {
+        LambdaManager manager = LambdaManager.indexed(new LambdaMetaFactoryGenerator());
+        Class<?>[] events = {Byte.class, Short.class, Long.class, Float.class, Double.class, Character.class, Boolean.class};
+        int[] called = new int[1];
+        for (Class<?> event : events) manager.registerRunnable(() -> called[0]++, event);
+        manager.call((byte) 1);
+        manager.call((short) 1);
+        manager.call(1L);
+        manager.call(1F);
+        manager.call(1D);
+        manager.call('a');
+        manager.call(true);
+        assertEquals(events.length, called[0]);
+    }
+
+    @Test
+    void reuseIds() {
+        ClassIndexMap<String> map = new ClassIndexMap<>();
+        assertNull(map.get(String.class)); //Reading does not assign an id
+        assertEquals(0, map.getTableLength());
+        map.put(String.class, "string");
+        map.put(Integer.class, "integer");
+        assertEquals(2, map.getTableLength());
+
+        map.remove(String.class);
+        assertNull(map.get(String.class));
+        map.put(Long.class, "long"); //Reuses the id of the removed class
+        assertEquals(2, map.getTableLength());
+        assertEquals("long", map.get(Long.class));
+        assertEquals("integer", map.get(Integer.class));
+        assertNull(map.get(String.class));
+
+        map.remove(Integer.class);
+        assertEquals(1, map.getTableLength()); //The table shrinks if the highest id is free
+        map.put(String.class, "string");
+        assertEquals("string", map.get(String.class));
+        assertEquals("long", map.get(Long.class));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void idsPerManager() {
+        ClassIndexMap<String> first = new ClassIndexMap<>();
+        ClassIndexMap<String> second = new ClassIndexMap<>();
+        first.put(String.class, "first");
+        first.put(Integer.class, "first");
+        second.put(Integer.class, "second");
+        assertEquals(2, first.getTableLength());
+        assertEquals(1, second.getTableLength()); //The ids of other maps don't grow the table
+        assertEquals("first", first.get(Integer.class));
+        assertEquals("second", second.get(Integer.class));
+        assertNull(second.get(String.class));
+    }
+
+    @Test
+    void concurrentFirstCallAndRegister() throws InterruptedException {
+        for (int i = 0; i < 5000; i++) {
+            //Every manager has its own ids, so every iteration races on the first lookup of the event class
+            LambdaManager manager = LambdaManager.indexed(new ReflectionGenerator());
+            int[] called = new int[1];
+            CountDownLatch start = new CountDownLatch(1);
+            Thread caller = new Thread(() -> {
+                awaitUninterruptibly(start);
+                manager.call(1L);
+            });
+            Thread register = new Thread(() -> {
+                awaitUninterruptibly(start);
+                manager.registerConsumer(event -> called[0]++, Long.class);
+            });
+            caller.start();
+            register.start();
+            start.countDown();
+            caller.join();
+            register.join();
+
+            called[0] = 0;
+            manager.call(2L);
+            assertEquals(1, called[0], "The event was not called after the race in iteration " + i);
+        }
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    @EventHandler
+    public void onString(final String event) {
+        this.calledString++;
+    }
+
+    @EventHandler
+    public void onInteger(final Integer event) {
+        this.calledInteger++;
+    }
+
+}
@@ -0,0 +1,98 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.types.IKeyedEvent;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyedHandlerTest {
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void keyedCall(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer(event -> called.add("unkeyedHigh"), 10, KeyedEvent.class);
+        manager.registerKeyed(KeyedEvent.class, 1, 5, event -> called.add("key1"));
+        manager.registerConsumer(event -> called.add("unkeyedLow"), 0, KeyedEvent.class);
+        manager.registerKeyed(KeyedEvent.class, 2, 20, event -> called.add("key2"));
+        manager.registerKeyed(KeyedEvent.class, 1, -5, event -> called.add("key1Low"));
+
+        manager.call(new KeyedEvent(1));
+        assertEquals(Arrays.asList("unkeyedHigh", "key1", "unkeyedLow", "key1Low"), called);
+
+        called.clear();
+        manager.call(new KeyedEvent(2));
+        assertEquals(Arrays.asList("key2", "unkeyedHigh", "unkeyedLow"), called);
+
+        called.clear();
+        manager.call(new KeyedEvent(3));
+        assertEquals(Arrays.asList("unkeyedHigh", "unkeyedLow"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unregisterKeyed(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        Consumer<KeyedEvent> key2 = event -> called.add("key2");
+        manager.registerKeyed(KeyedEvent.class, 1, event -> called.add("key1"));
+        manager.registerKeyed(KeyedEvent.class, 2, key2);
+
+        manager.unregisterKeyed(KeyedEvent.class, 1);
+        manager.call(new KeyedEvent(1));
+        manager.call(new KeyedEvent(2));
+        assertEquals(Arrays.asList("key2"), called);
+
+        called.clear();
+        manager.unregisterConsumer(key2);
+        manager.call(new KeyedEvent(1));
+        manager.call(new KeyedEvent(2));
+        assertTrue(called.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void keyedLazyCall(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerKeyed(KeyedEvent.class, 1, event -> called.add("key1"));
+        assertTrue(manager.hasHandlers(KeyedEvent.class, 1));
+        assertFalse(manager.hasHandlers(KeyedEvent.class, 2)); //Only keyed handlers for other keys
+        assertNull(manager.call(KeyedEvent.class, 2, () -> {
+            throw new AssertionError("The event should not be created");
+        }));
+        assertNotNull(manager.call(KeyedEvent.class, 1, () -> new KeyedEvent(1)));
+        assertEquals(Arrays.asList("key1"), called);
+
+        manager.registerConsumer(event -> called.add("unkeyed"), KeyedEvent.class);
+        assertTrue(manager.hasHandlers(KeyedEvent.class, 2)); //Unkeyed handlers are called for all keys
+        manager.unregisterKeyed(KeyedEvent.class, 1);
+        assertTrue(manager.hasHandlers(KeyedEvent.class, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unkeyedEvent(final LambdaManager manager) {
+        assertThrows(IllegalArgumentException.class, () -> manager.registerKeyed((Class) String.class, 1, event -> {}));
+    }
+
+
+    public static class KeyedEvent implements IKeyedEvent {
+        private final int key;
+
+        public KeyedEvent(final int key) {
+            this.key = key;
+        }
+
+        @Override
+        public Object getEventKey() {
+            return this.key;
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyCallTest {
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void hasHandlers(final LambdaManager manager) {
+        assertFalse(manager.hasHandlers(String.class));
+        assertFalse(manager.hasParentHandlers(String.class));
+
+        manager.registerRunnable(() -> {}, CharSequence.class);
+        assertFalse(manager.hasHandlers(String.class));
+        assertTrue(manager.hasParentHandlers(String.class));
+        manager.setAlwaysCallParents(true);
+        assertTrue(manager.hasHandlers(String.class));
+        manager.setAlwaysCallParents(false);
+
+        manager.registerRunnable(() -> {}, String.class);
+        assertTrue(manager.hasHandlers(String.class));
+        manager.setEventFilter((event, checkType) -> !event.equals(String.class));
+        assertFalse(manager.hasHandlers(String.class));
+        assertFalse(manager.hasParentHandlers(String.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void call(final LambdaManager manager) {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger called = new AtomicInteger();
+        assertNull(manager.call(String.class, () -> {
+            created.incrementAndGet();
+            return "Test";
+        }));
+        assertEquals(0, created.get());
+
+        manager.registerConsumer(event -> called.incrementAndGet(), String.class);
+        assertEquals("Test", manager.call(String.class, () -> {
+            created.incrementAndGet();
+            return "Test";
+        }));
+        assertEquals(1, created.get());
+        assertEquals(1, called.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callParents(final LambdaManager manager) {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger called = new AtomicInteger();
+        assertNull(manager.callParents(String.class, () -> {
+            created.incrementAndGet();
+            return "Test";
+        }));
+        assertEquals(0, created.get());
+
+        manager.registerConsumer(event -> called.incrementAndGet(), CharSequence.class);
+        assertNull(manager.call(String.class, () -> {
+            created.incrementAndGet();
+            return "Test";
+        }));
+        assertEquals(0, created.get());
+        assertEquals("Test", manager.callParents(String.class, () -> {
+            created.incrementAndGet();
+            return "Test";
+        }));
+        assertEquals(1, created.get());
+        assertEquals(1, called.get());
+    }
+
+}
@@ -0,0 +1,109 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.LazyGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import net.lenni0451.lambdaevents.handler.LazyHandler;
+import net.lenni0451.lambdaevents.utils.EventUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyGeneratorTest {
+
+    private int called = 0;
+
+    @Test
+    void generateOnFirstCall() throws NoSuchMethodException {
+        AtomicInteger generated = new AtomicInteger();
+        LazyGenerator generator = new LazyGenerator(new ReflectionGenerator() {
+            @Override
+            public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+                generated.incrementAndGet();
+                return super.generate(owner, instance, annotation, method, arg);
+            }
+
+            @Override
+            public AHandler generateVirtual(Class<?> owner, Object instance, EventHandler annotation, Method method) {
+                generated.incrementAndGet();
+                return super.generateVirtual(owner, instance, annotation, method);
+            }
+        });
+        LazyHandler handler = (LazyHandler) generator.generate(LazyGeneratorTest.class, this, EventUtils.newEventHandler(0), LazyGeneratorTest.class.getDeclaredMethod("onEvent", String.class), String.class);
+        LazyHandler virtualHandler = (LazyHandler) generator.generateVirtual(LazyGeneratorTest.class, this, EventUtils.newEventHandler(0), LazyGeneratorTest.class.getDeclaredMethod("onVirtual"));
+        assertNull(handler.getHandler());
+        assertEquals(0, generated.get());
+
+        handler.call("a");
+        handler.call("b");
+        virtualHandler.call("c");
+        assertNotNull(handler.getHandler());
+        assertEquals(2, generated.get());
+        assertEquals(3, this.called);
+    }
+
+    @Test
+    void concurrentFirstCall() throws Exception {
+        AtomicInteger generated = new AtomicInteger();
+        LazyGenerator generator = new LazyGenerator(new ReflectionGenerator() {
+            @Override
+            public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+                generated.incrementAndGet();
+                return super.generate(owner, instance, annotation, method, arg);
+            }
+        });
+        LazyHandler handler = (LazyHandler) generator.generate(LazyGeneratorTest.class, this, EventUtils.newEventHandler(0), LazyGeneratorTest.class.getDeclaredMethod("onEvent", String.class), String.class);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> handler.call("a"));
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(1, generated.get());
+    }
+
+    @Test
+    void cachedFailure() throws NoSuchMethodException {
+        AtomicInteger generated = new AtomicInteger();
+        LazyGenerator generator = new LazyGenerator(new ReflectionGenerator() {
+            @Override
+            public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+                generated.incrementAndGet();
+                throw new IllegalStateException("Test");
+            }
+        });
+        LazyHandler handler = (LazyHandler) generator.generate(LazyGeneratorTest.class, this, EventUtils.newEventHandler(0), LazyGeneratorTest.class.getDeclaredMethod("onEvent", String.class), String.class);
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> handler.call("a"));
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> handler.call("b"))); //The original failure is thrown again
+        assertEquals(1, generated.get());
+        assertNull(handler.getHandler());
+    }
+
+    @Test
+    void cachedError() throws NoSuchMethodException {
+        AtomicInteger generated = new AtomicInteger();
+        LazyGenerator generator = new LazyGenerator(new ReflectionGenerator() {
+            @Override
+            public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+                generated.incrementAndGet();
+                throw new LinkageError("Test");
+            }
+        });
+        LazyHandler handler = (LazyHandler) generator.generate(LazyGeneratorTest.class, this, EventUtils.newEventHandler(0), LazyGeneratorTest.class.getDeclaredMethod("onEvent", String.class), String.class);
+        LinkageError failure = assertThrows(LinkageError.class, () -> handler.call("a"));
+        assertSame(failure, assertThrows(LinkageError.class, () -> handler.call("b"))); //Errors are cached like exceptions
+        assertEquals(1, generated.get());
+        assertNull(handler.getHandler());
+    }
+
+    public synchronized void onEvent(final String event) {
+        this.called++;
+    }
+
+    public synchronized void onVirtual() {
+        this.called++;
+    }
+
+}
@@ -0,0 +1,44 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.utils.LookupUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupUtilsTest {
+
+    @Test
+    void getInCached() {
+        ClassLoader loader = new ClassLoader() {
+        };
+        MethodHandles.Lookup lookup = LookupUtils.getIn(loader);
+        assertSame(lookup, LookupUtils.getIn(loader));
+        assertSame(loader, lookup.lookupClass().getClassLoader().getParent());
+
+        LookupUtils.release(loader);
+        assertNotSame(lookup, LookupUtils.getIn(loader));
+    }
+
+    @Test
+    void resolveCached() {
+        MethodHandles.Lookup base = MethodHandles.lookup().in(Object.class); //No private access to this class
+        MethodHandles.Lookup resolved = LookupUtils.resolveLookup(base, LookupUtilsTest.class);
+        assertNotSame(base, resolved);
+        assertTrue(LookupUtils.canAccess(resolved, LookupUtilsTest.class));
+        assertSame(resolved, LookupUtils.resolveLookup(base, LookupUtilsTest.class));
+    }
+
+    @Test
+    void resolveBaseCached() {
+        MethodHandles.Lookup base = MethodHandles.lookup();
+        assertSame(base, LookupUtils.resolveLookup(base, LookupUtilsTest.class));
+        assertSame(base, LookupUtils.resolveLookup(base, LookupUtilsTest.class));
+
+        //A lookup with the same lookup class but fewer access modes has to be resolved separately
+        MethodHandles.Lookup publicBase = base.in(Object.class).in(LookupUtilsTest.class);
+        assertNotSame(base, LookupUtils.resolveLookup(publicBase, LookupUtilsTest.class));
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.utils.ParentsCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParentsCacheTest {
+
+    @Test
+    void parents() {
+        ParentsCache cache = new ParentsCache();
+        Class<?>[] parents = cache.get(String.class);
+        assertEquals(String.class, parents[0]);
+        assertTrue(Arrays.asList(parents).contains(CharSequence.class));
+        assertTrue(Arrays.asList(parents).contains(Object.class));
+        assertSame(parents, cache.get(String.class));
+    }
+
+    @Test
+    void statistics() {
+        ParentsCache cache = new ParentsCache();
+        cache.get(String.class);
+        cache.get(String.class);
+        cache.get(Integer.class);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void eviction() {
+        ParentsCache cache = new ParentsCache(2);
+        cache.get(String.class);
+        cache.get(Integer.class);
+        cache.get(Long.class);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        cache.get(String.class); //Evicted, has to be calculated again
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void concurrentMisses() throws InterruptedException {
+        Class<?>[] classes = {String.class, Integer.class, Long.class, Double.class};
+        for (int i = 0; i < 200; i++) {
+            ParentsCache cache = new ParentsCache();
+            Thread[] threads = new Thread[4];
+            for (int j = 0; j < threads.length; j++) {
+                threads[j] = new Thread(() -> {
+                    for (Class<?> clazz : classes) cache.get(clazz);
+                });
+            }
+            for (Thread thread : threads) thread.start();
+            for (Thread thread : threads) thread.join();
+            assertEquals(classes.length, cache.size()); //Classes calculated by multiple threads are only tracked once
+        }
+    }
+
+    @Test
+    void clear() {
+        ParentsCache cache = new ParentsCache();
+        cache.get(String.class);
+        cache.clear();
+        assertEquals(0, cache.size());
+        cache.get(String.class);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void managerCache(final LambdaManager manager) {
+        int[] called = new int[1];
+        manager.setParentsCacheSize(1);
+        manager.registerRunnable(() -> called[0]++, Object.class);
+        manager.callParents("Test");
+        manager.callParents(1);
+        manager.callParents("Test");
+        assertEquals(3, called[0]);
+        assertEquals(1, manager.getParentsCache().size());
+        assertEquals(2, manager.getParentsCache().getEvictions());
+    }
+
+}
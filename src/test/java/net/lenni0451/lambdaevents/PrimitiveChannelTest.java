@@ -0,0 +1,95 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveChannelTest {
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callPrimitives(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        manager.registerIntConsumer(IntChannel.class, called::add);
+        manager.registerLongConsumer(LongChannel.class, called::add);
+        manager.registerDoubleConsumer(DoubleChannel.class, called::add);
+
+        manager.callInt(IntChannel.class, 1);
+        manager.callLong(LongChannel.class, 2L);
+        manager.callDouble(DoubleChannel.class, 3D);
+        manager.callInt(LongChannel.class, 4); //The value is boxed and converted for other handler types
+        manager.callInt(String.class, 5); //No handlers
+        assertEquals(Arrays.asList(1, 2L, 3D, 4L), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void priorityAndMixedHandlers(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        manager.registerIntConsumer(IntChannel.class, -1, value -> called.add("low " + value));
+        manager.registerConsumer(value -> called.add("boxed " + value), IntChannel.class);
+        manager.registerIntConsumer(IntChannel.class, 1, value -> called.add("high " + value));
+
+        manager.callInt(IntChannel.class, 5);
+        assertEquals(Arrays.asList("high 5", "boxed 5", "low 5"), called);
+
+        called.clear();
+        manager.registerIntConsumer(Integer.class, value -> called.add("integer " + value));
+        manager.call(7);
+        assertEquals(Arrays.asList("integer 7"), called); //Primitive handlers can also be called with boxed values
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void stopCallAndExceptions(final LambdaManager manager) {
+        AtomicReference<Object> failedEvent = new AtomicReference<>();
+        List<Integer> called = new ArrayList<>();
+        manager.setExceptionHandler((handler, event, t) -> failedEvent.set(event));
+        manager.registerIntConsumer(IntChannel.class, 2, value -> {
+            throw new IllegalStateException();
+        });
+        manager.registerIntConsumer(IntChannel.class, 1, value -> {
+            called.add(value);
+            if (value > 10) throw StopCall.INSTANCE;
+        });
+        manager.registerIntConsumer(IntChannel.class, 0, called::add);
+
+        manager.callInt(IntChannel.class, 5);
+        assertEquals(Arrays.asList(5, 5), called);
+        assertEquals(5, failedEvent.get());
+
+        called.clear();
+        manager.callInt(IntChannel.class, 20);
+        assertEquals(Arrays.asList(20), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unregister(final LambdaManager manager) {
+        List<Integer> called = new ArrayList<>();
+        IntConsumer consumer = called::add;
+        manager.registerIntConsumer(IntChannel.class, consumer);
+        manager.unregister((Object) consumer);
+        manager.callInt(IntChannel.class, 1);
+        assertTrue(called.isEmpty());
+    }
+
+
+    public static class IntChannel {
+    }
+
+    public static class LongChannel {
+    }
+
+    public static class DoubleChannel {
+    }
+
+}
@@ -0,0 +1,87 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReentrancyTest {
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unlimited(final LambdaManager manager) {
+        List<String> called = this.registerNested(manager);
+        manager.call(2);
+        assertEquals(Arrays.asList("first 2", "first 1", "first 0", "second 0", "second 1", "second 2"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void depthLimit(final LambdaManager manager) {
+        AtomicReference<Throwable> exception = new AtomicReference<>();
+        manager.setExceptionHandler((handler, event, t) -> exception.set(t));
+        manager.setReentrancyPolicy(ReentrancyPolicy.depthLimit(2));
+        List<String> called = this.registerNested(manager);
+        manager.call(2);
+        assertEquals(Arrays.asList("first 2", "first 1", "second 1", "second 2"), called);
+        assertInstanceOf(IllegalStateException.class, exception.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void deferNested(final LambdaManager manager) {
+        manager.setReentrancyPolicy(ReentrancyPolicy.deferNested());
+        List<String> called = this.registerNested(manager);
+        manager.call(2);
+        assertEquals(Arrays.asList("first 2", "second 2", "first 1", "second 1", "first 0", "second 0"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void deferAbove(final LambdaManager manager) {
+        manager.setReentrancyPolicy(ReentrancyPolicy.deferAbove(2));
+        List<String> called = this.registerNested(manager);
+        manager.call(3);
+        assertEquals(Arrays.asList("first 3", "first 2", "second 2", "second 3", "first 1", "first 0", "second 0", "second 1"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void dropOnException(final LambdaManager manager) {
+        manager.setExceptionHandler(IExceptionHandler.throwing());
+        manager.setReentrancyPolicy(ReentrancyPolicy.deferNested());
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer(event -> {
+            called.add("first " + event);
+            manager.call("nested");
+            throw new IllegalStateException();
+        }, Integer.class);
+        manager.registerConsumer(event -> called.add((String) event), String.class);
+        assertThrows(Throwable.class, () -> manager.call(1));
+        manager.call("next");
+        assertEquals(Arrays.asList("first 1", "next"), called); //The deferred "nested" event was dropped
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void invalidDepth(final LambdaManager manager) {
+        assertThrows(IllegalArgumentException.class, () -> ReentrancyPolicy.depthLimit(0));
+    }
+
+    private List<String> registerNested(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerConsumer((Integer event) -> {
+            called.add("first " + event);
+            if (event > 0) manager.call(event - 1);
+        }, 1, Integer.class);
+        manager.registerConsumer((Integer event) -> called.add("second " + event), 0, Integer.class);
+        return called;
+    }
+
+}
@@ -0,0 +1,70 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReflectionHandlerTest {
+
+    @Test
+    void nestedCalls() {
+        LambdaManager manager = LambdaManager.basic(new ReflectionGenerator());
+        NestedListener listener = new NestedListener(manager);
+        manager.register(listener);
+
+        manager.call(3);
+        assertEquals(Arrays.asList(3, 2, 1, 0), listener.before);
+        assertEquals(Arrays.asList(0, 1, 2, 3), listener.after); //The reused arguments must not change the outer events
+    }
+
+    @Test
+    void concurrentCalls() throws InterruptedException {
+        LambdaManager manager = LambdaManager.threadSafe(new ReflectionGenerator());
+        SumListener listener = new SumListener();
+        manager.register(listener);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) manager.call(1);
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(threads.length * 10_000, listener.sum.get());
+    }
+
+
+    public static class NestedListener {
+        private final LambdaManager manager;
+        private final List<Integer> before = new ArrayList<>();
+        private final List<Integer> after = new ArrayList<>();
+
+        public NestedListener(final LambdaManager manager) {
+            this.manager = manager;
+        }
+
+        @EventHandler
+        public void onInteger(final Integer event) {
+            this.before.add(event);
+            if (event > 0) this.manager.call(event - 1);
+            this.after.add(event);
+        }
+    }
+
+    public static class SumListener {
+        private final AtomicInteger sum = new AtomicInteger();
+
+        @EventHandler
+        public void onInteger(final Integer event) {
+            this.sum.addAndGet(event);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RegisterAllTest {
+
+    private static final List<String> staticCalled = new ArrayList<>();
+
+    @EventHandler(priority = 1)
+    public static void onStaticEvent(final String s) {
+        staticCalled.add("static");
+    }
+
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void order(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        List<Listener> listeners = new ArrayList<>();
+        for (int i = 0; i < 64; i++) listeners.add(new Listener(String.valueOf(i), called));
+        manager.registerAll(listeners);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 64; i++) expected.add("high " + i);
+        for (int i = 0; i < 64; i++) expected.add("low " + i);
+        manager.call("Test");
+        assertEquals(expected, called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void sameAsSequential(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        manager.registerAll(Arrays.asList(new Listener("a", called), RegisterAllTest.class, new Listener("b", called)));
+        staticCalled.clear();
+        manager.call("Test");
+        List<String> parallel = new ArrayList<>(called);
+        assertEquals(Collections.singletonList("static"), staticCalled);
+
+        called.clear();
+        manager.unregisterAll(String.class);
+        manager.register(new Listener("a", called));
+        manager.register(RegisterAllTest.class);
+        manager.register(new Listener("b", called));
+        manager.call("Test");
+        assertEquals(called, parallel);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void failureRegistersNothing(final LambdaManager manager) {
+        List<String> called = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> manager.registerAll(Arrays.asList(new Listener("a", called), new InvalidListener())));
+        manager.call("Test");
+        assertTrue(called.isEmpty());
+    }
+
+
+    public static class Listener {
+        private final String id;
+        private final List<String> called;
+
+        public Listener(final String id, final List<String> called) {
+            this.id = id;
+            this.called = called;
+        }
+
+        @EventHandler(priority = 2)
+        public void onHigh(final String s) {
+            this.called.add("high " + this.id);
+        }
+
+        @EventHandler(priority = -1)
+        public void onLow(final String s) {
+            this.called.add("low " + this.id);
+        }
+    }
+
+    public static class InvalidListener {
+        @EventHandler
+        public void onEvent(final String s, final Integer i) {
+        }
+    }
+
+}
@@ -1,21 +1,35 @@
 package net.lenni0451.lambdaevents;
 
 import net.lenni0451.lambdaevents.generator.ASMGenerator;
+import net.lenni0451.lambdaevents.generator.AutoGenerator;
+import net.lenni0451.lambdaevents.generator.HiddenClassGenerator;
 import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.LazyGenerator;
 import net.lenni0451.lambdaevents.generator.MethodHandleGenerator;
 import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import net.lenni0451.lambdaevents.generator.TieredGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class TestManager {
 
     public static final String DATA_SOURCE = "net.lenni0451.lambdaevents.TestManager#make";
 
     public static LambdaManager[] make() {
-        return new LambdaManager[]{
+        List<LambdaManager> managers = new ArrayList<>(Arrays.asList(
                 LambdaManager.basic(new ReflectionGenerator()),
                 LambdaManager.basic(new MethodHandleGenerator()),
                 LambdaManager.basic(new LambdaMetaFactoryGenerator()),
                 LambdaManager.basic(new ASMGenerator()),
-        };
+                LambdaManager.basic(new TieredGenerator(new ReflectionGenerator(), new LambdaMetaFactoryGenerator(), 2)),
+                LambdaManager.basic(new LazyGenerator(new MethodHandleGenerator())),
+                LambdaManager.basic(new LambdaMetaFactoryGenerator()).setScanClassFiles(true),
+                LambdaManager.basic(new AutoGenerator())
+        ));
+        if (HiddenClassGenerator.isSupported()) managers.add(LambdaManager.basic(HiddenClassGenerator.create()));
+        return managers.toArray(new LambdaManager[0]);
     }
 
 }
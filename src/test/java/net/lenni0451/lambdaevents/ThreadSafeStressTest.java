@@ -0,0 +1,243 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests for the guarantees of the thread safe managers under contention:<br>
+ * - A call sees either the old or the new call chain of an event, never a partially updated one<br>
+ * - No handler is lost when registering and unregistering concurrently<br>
+ * - Concurrent unregistrations of the same handlers resolve consistently
+ */
+public class ThreadSafeStressTest {
+
+    private static final String DATA_SOURCE = "net.lenni0451.lambdaevents.ThreadSafeStressTest#make";
+    private static final long DURATION = 200;
+    private static final int THREADS = 4;
+
+    public static LambdaManager[] make() {
+        return new LambdaManager[]{
+                LambdaManager.threadSafe(new ReflectionGenerator()).setExceptionHandler(IExceptionHandler.throwing()),
+                LambdaManager.threadSafe(new LambdaMetaFactoryGenerator()).setExceptionHandler(IExceptionHandler.throwing()),
+                LambdaManager.indexed(new LambdaMetaFactoryGenerator()).setExceptionHandler(IExceptionHandler.throwing())
+        };
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callSeesWholeChain(final LambdaManager manager) throws InterruptedException {
+        manager.register(new PairListener());
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        stress(DURATION, THREADS, running -> {
+            while (running.get()) {
+                PairEvent event = manager.call(new PairEvent());
+                int first = event.first.get();
+                int second = event.second.get();
+                if ((first != second || first < 1 || first > 3) && violations.size() < 10) violations.add(first + "/" + second);
+            }
+        }, running -> {
+            //Replace the listener, so there always are one or two pairs of handlers besides the initial one
+            Object current = null;
+            while (running.get()) {
+                PairListener next = new PairListener();
+                manager.register(next);
+                if (current != null) manager.unregister(current);
+                current = next;
+            }
+        });
+        assertEquals(Collections.emptyList(), new ArrayList<>(violations)); //Calls which saw a partial call chain
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void noLostRegistrations(final LambdaManager manager) throws InterruptedException {
+        int perThread = 200;
+        AtomicInteger called = new AtomicInteger();
+        List<List<Consumer<String>>> consumers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            List<Consumer<String>> threadConsumers = new ArrayList<>();
+            for (int j = 0; j < perThread; j++) threadConsumers.add(event -> called.incrementAndGet());
+            consumers.add(threadConsumers);
+        }
+        AtomicInteger thread = new AtomicInteger();
+        stress(DURATION, THREADS, running -> {
+            for (Consumer<String> consumer : consumers.get(thread.getAndIncrement())) manager.registerConsumer(consumer, String.class);
+        }, running -> {
+            while (running.get()) manager.call("stress");
+        });
+        called.set(0);
+        manager.call("test");
+        assertEquals(THREADS * perThread, called.get());
+
+        thread.set(0);
+        stress(DURATION, THREADS, running -> {
+            List<Consumer<String>> threadConsumers = consumers.get(thread.getAndIncrement());
+            for (int i = 0; i < threadConsumers.size(); i += 2) manager.unregisterConsumer(threadConsumers.get(i));
+        }, running -> {
+            while (running.get()) manager.callParents("stress");
+        });
+        called.set(0);
+        manager.call("test");
+        assertEquals(THREADS * perThread / 2, called.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unregisterRace(final LambdaManager manager) throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            CountingListener shared = new CountingListener();
+            CountingListener[] own = new CountingListener[THREADS];
+            for (int i = 0; i < own.length; i++) own[i] = new CountingListener();
+            manager.register(shared);
+            AtomicInteger thread = new AtomicInteger();
+            stress(DURATION / 10, THREADS, running -> {
+                //Every thread unregisters the shared listener and replaces its own listener
+                CountingListener listener = own[thread.getAndIncrement()];
+                manager.register(listener);
+                manager.unregister(shared);
+                manager.unregister(listener);
+                manager.register(listener);
+            }, running -> {
+                while (running.get()) manager.call(1);
+            });
+            shared.called.set(0);
+            for (CountingListener listener : own) listener.called.set(0);
+            manager.call(1);
+            assertEquals(0, shared.called.get());
+            for (CountingListener listener : own) assertEquals(1, listener.called.get());
+            for (CountingListener listener : own) manager.unregister(listener);
+            assertFalse(manager.hasHandlers(Integer.class));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void unregisterAllRace(final LambdaManager manager) throws InterruptedException {
+        AtomicInteger called = new AtomicInteger();
+        stress(DURATION, THREADS, running -> {
+            while (running.get()) manager.registerConsumer(event -> called.incrementAndGet(), Long.class);
+        }, running -> {
+            while (running.get()) manager.unregisterAll(Long.class);
+        }, running -> {
+            while (running.get()) manager.call(1L);
+        });
+        manager.unregisterAll(Long.class);
+        assertFalse(manager.hasHandlers(Long.class));
+        called.set(0);
+        manager.call(1L);
+        assertEquals(0, called.get());
+
+        manager.registerConsumer(event -> called.incrementAndGet(), Long.class);
+        manager.call(1L);
+        assertEquals(1, called.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callParentsDuringRegistration(final LambdaManager manager) throws InterruptedException {
+        manager.registerConsumer(event -> ((ChildEvent) event).child.incrementAndGet(), ChildEvent.class);
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        stress(DURATION, THREADS, running -> {
+            while (running.get()) {
+                ChildEvent event = manager.callParents(new ChildEvent());
+                if ((event.child.get() != 1 || event.parent.get() > 1) && violations.size() < 10) violations.add(event.child.get() + "/" + event.parent.get());
+            }
+        }, running -> {
+            while (running.get()) {
+                Consumer<ParentEvent> consumer = event -> event.parent.incrementAndGet();
+                manager.registerConsumer(consumer, ParentEvent.class);
+                manager.unregisterConsumer(consumer);
+            }
+        });
+        assertEquals(Collections.emptyList(), new ArrayList<>(violations)); //Calls which called a handler twice or not at all
+        assertFalse(manager.hasHandlers(ParentEvent.class));
+    }
+
+    /**
+     * Run the first task on the given amount of threads and every other task on its own thread.<br>
+     * All threads start at the same time, {@code running} is set to {@code false} once the duration (in milliseconds) is over.
+     * Exceptions of any thread fail the test.
+     */
+    private static void stress(final long duration, final int threads, final StressTask... tasks) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CyclicBarrier barrier = new CyclicBarrier(threads + tasks.length - 1);
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < threads + tasks.length - 1; i++) {
+            StressTask task = i < threads ? tasks[0] : tasks[i - threads + 1];
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    task.run(running);
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            });
+            thread.start();
+            started.add(thread);
+        }
+        Thread.sleep(duration);
+        running.set(false);
+        for (Thread thread : started) thread.join();
+        if (!errors.isEmpty()) {
+            AssertionError error = new AssertionError("Stress test threads failed");
+            for (Throwable t : errors) error.addSuppressed(t);
+            throw error;
+        }
+    }
+
+
+    @FunctionalInterface
+    private interface StressTask {
+        void run(final AtomicBoolean running) throws Exception;
+    }
+
+    public static class PairEvent {
+        private final AtomicInteger first = new AtomicInteger();
+        private final AtomicInteger second = new AtomicInteger();
+    }
+
+    public static class PairListener {
+        @EventHandler(priority = 1)
+        public void first(final PairEvent event) {
+            event.first.incrementAndGet();
+        }
+
+        @EventHandler
+        public void second(final PairEvent event) {
+            event.second.incrementAndGet();
+        }
+    }
+
+    public static class CountingListener {
+        private final AtomicInteger called = new AtomicInteger();
+
+        @EventHandler
+        public void onEvent(final Integer event) {
+            this.called.incrementAndGet();
+        }
+    }
+
+    public static class ParentEvent {
+        protected final AtomicInteger parent = new AtomicInteger();
+    }
+
+    public static class ChildEvent extends ParentEvent {
+        private final AtomicInteger child = new AtomicInteger();
+    }
+
+}
@@ -0,0 +1,150 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickDispatcherTest {
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void flushGrouped(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        manager.registerConsumer(called::add, String.class, Integer.class);
+        TickDispatcher dispatcher = new TickDispatcher(manager, 1);
+        dispatcher.post(1);
+        dispatcher.post("a");
+        dispatcher.post(2);
+        dispatcher.post("b");
+        dispatcher.post(3);
+        assertEquals(5, dispatcher.size());
+        assertTrue(called.isEmpty());
+
+        dispatcher.flush();
+        assertEquals(Arrays.asList(1, 2, 3, "a", "b"), called);
+        assertEquals(0, dispatcher.size());
+
+        called.clear();
+        dispatcher.post("c");
+        dispatcher.post(4);
+        dispatcher.flush();
+        assertEquals(Arrays.asList("c", 4), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void postWhileFlushing(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        TickDispatcher dispatcher = new TickDispatcher(manager);
+        manager.registerConsumer(event -> {
+            called.add(event);
+            dispatcher.post("posted " + event);
+        }, Integer.class);
+        manager.registerConsumer(called::add, String.class);
+        dispatcher.post(1);
+        dispatcher.flush();
+        assertEquals(Arrays.asList(1), called);
+        dispatcher.flush();
+        assertEquals(Arrays.asList(1, "posted 1"), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void flushWhileFlushing(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        TickDispatcher dispatcher = new TickDispatcher(manager, 1);
+        manager.setExceptionHandler((handler, event, t) -> errors.add(t));
+        manager.registerConsumer(event -> {
+            called.add(event);
+            dispatcher.post("posted " + event);
+            dispatcher.flush(); //Not allowed, the events must neither be lost nor called twice
+        }, Integer.class);
+        manager.registerConsumer(called::add, String.class);
+        dispatcher.post(1);
+        dispatcher.post(2);
+        dispatcher.post("a");
+        dispatcher.flush();
+        assertEquals(Arrays.asList(1, 2, "a"), called);
+        assertEquals(2, errors.size());
+        assertInstanceOf(IllegalStateException.class, errors.get(0));
+
+        dispatcher.flush();
+        assertEquals(Arrays.asList(1, 2, "a", "posted 1", "posted 2"), called);
+        dispatcher.flush();
+        assertEquals(5, called.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void shrinkBuffers(final LambdaManager manager) {
+        TickDispatcher dispatcher = new TickDispatcher(manager, 4);
+        for (int i = 0; i < 1000; i++) dispatcher.post(i);
+        dispatcher.flush();
+        assertTrue(dispatcher.getCapacity(Integer.class) >= 1000);
+        for (int i = 0; i < 20; i++) {
+            dispatcher.post(i);
+            dispatcher.flush();
+        }
+        assertEquals(4, dispatcher.getCapacity(Integer.class)); //The buffers shrink back after the burst
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void clear(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        manager.registerConsumer(called::add, String.class);
+        TickDispatcher dispatcher = new TickDispatcher(manager);
+        dispatcher.post("a");
+        dispatcher.clear();
+        dispatcher.flush();
+        assertTrue(called.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void coalescing(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        manager.registerConsumer(called::add, String.class, Integer.class);
+        TickDispatcher dispatcher = new TickDispatcher(manager);
+        dispatcher.setCoalescing(Integer.class);
+        dispatcher.setCoalescing(String.class, s -> s.charAt(0));
+        for (int i = 0; i < 100; i++) dispatcher.post(i);
+        dispatcher.post("a1");
+        dispatcher.post("b1");
+        dispatcher.post("a2");
+        assertEquals(3, dispatcher.size());
+        dispatcher.flush();
+        assertEquals(Arrays.asList(99, "a2", "b1"), called);
+
+        called.clear();
+        dispatcher.post(1);
+        dispatcher.removeCoalescing(Integer.class);
+        dispatcher.post(2);
+        dispatcher.post(3);
+        dispatcher.flush();
+        assertEquals(Arrays.asList(1, 2, 3), called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callBatchParents(final LambdaManager manager) {
+        List<Object> called = new ArrayList<>();
+        manager.registerConsumer(event -> called.add("string " + event), String.class);
+        manager.registerConsumer(event -> called.add("sequence " + event), CharSequence.class);
+        manager.callBatch(String.class, new Object[]{"x", "a", "b"}, 1, 2);
+        assertEquals(Arrays.asList("string a", "string b"), called);
+
+        called.clear();
+        manager.setAlwaysCallParents(true);
+        manager.callBatch(String.class, new Object[]{"a", "b"}, 0, 2);
+        assertEquals(Arrays.asList("string a", "sequence a", "string b", "sequence b"), called);
+    }
+
+}
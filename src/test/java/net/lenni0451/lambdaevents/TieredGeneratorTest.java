@@ -0,0 +1,156 @@
+package net.lenni0451.lambdaevents;
+
+import net.lenni0451.lambdaevents.generator.LambdaMetaFactoryGenerator;
+import net.lenni0451.lambdaevents.generator.ReflectionGenerator;
+import net.lenni0451.lambdaevents.generator.TieredGenerator;
+import net.lenni0451.lambdaevents.handler.TieredHandler;
+import net.lenni0451.lambdaevents.handler.reflection.ReflectionHandler;
+import net.lenni0451.lambdaevents.utils.EventUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredGeneratorTest {
+
+    private int called = 0;
+
+    @Test
+    void upgrade() throws NoSuchMethodException {
+        Method method = TieredGeneratorTest.class.getDeclaredMethod("onEvent", String.class);
+        TieredGenerator generator = new TieredGenerator(new ReflectionGenerator(), new LambdaMetaFactoryGenerator(), 3);
+        TieredHandler handler = (TieredHandler) generator.generate(TieredGeneratorTest.class, this, EventUtils.newEventHandler(0), method, String.class);
+        assertInstanceOf(ReflectionHandler.class, handler.getHandler());
+
+        handler.call("a");
+        handler.call("b");
+        assertFalse(handler.isUpgraded());
+        handler.call("c");
+        assertTrue(handler.isUpgraded());
+        assertFalse(handler.getHandler() instanceof ReflectionHandler);
+        handler.call("d");
+        assertEquals(4, this.called);
+    }
+
+    @Test
+    void failedUpgrade() throws NoSuchMethodException {
+        Method method = TieredGeneratorTest.class.getDeclaredMethod("onEvent", String.class);
+        TieredGenerator generator = new TieredGenerator(new ReflectionGenerator(), new FailingGenerator(), 1);
+        TieredHandler handler = (TieredHandler) generator.generate(TieredGeneratorTest.class, this, EventUtils.newEventHandler(0), method, String.class);
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> handler.call("a"));
+        assertInstanceOf(UnsupportedOperationException.class, failure.getCause());
+        assertTrue(handler.isUpgraded());
+        assertInstanceOf(ReflectionHandler.class, handler.getHandler());
+        assertEquals(1, this.called); //The initial handler was still called
+
+        handler.call("b"); //The failure is only thrown once
+        assertEquals(2, this.called);
+    }
+
+    @Test
+    void failedUpgradeError() throws NoSuchMethodException {
+        Method method = TieredGeneratorTest.class.getDeclaredMethod("onEvent", String.class);
+        IGenerator errorGenerator = new FailingGenerator() {
+            @Override
+            public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+                throw new OutOfMemoryError();
+            }
+        };
+        TieredGenerator generator = new TieredGenerator(new ReflectionGenerator(), errorGenerator, 1);
+        TieredHandler handler = (TieredHandler) generator.generate(TieredGeneratorTest.class, this, EventUtils.newEventHandler(0), method, String.class);
+        assertThrows(OutOfMemoryError.class, () -> handler.call("a"));
+    }
+
+    @Test
+    void replaceInCallChain() {
+        List<AHandler> throwingHandlers = new ArrayList<>();
+        LambdaManager manager = LambdaManager.basic(new TieredGenerator(new ReflectionGenerator(), new LambdaMetaFactoryGenerator(), 1));
+        manager.setExceptionHandler((handler, event, t) -> throwingHandlers.add(handler));
+        manager.register(new Throwing());
+        manager.call("a");
+        manager.call("b");
+        assertEquals(2, throwingHandlers.size());
+        assertInstanceOf(TieredHandler.class, throwingHandlers.get(0));
+        assertFalse(throwingHandlers.get(1) instanceof TieredHandler); //The optimized handler replaced the tiered handler
+        assertFalse(throwingHandlers.get(1) instanceof ReflectionHandler);
+    }
+
+    @Test
+    void upgradeKeepsOrder() {
+        List<String> called = new ArrayList<>();
+        LambdaManager manager = LambdaManager.basic(new TieredGenerator(new ReflectionGenerator(), new LambdaMetaFactoryGenerator(), 2));
+        manager.register(new Ordered(called));
+        manager.registerConsumer(event -> called.add("middle"), 0, String.class);
+        for (int i = 0; i < 3; i++) {
+            called.clear();
+            manager.call("a");
+            assertEquals(Arrays.asList("high", "middle", "low"), called);
+        }
+    }
+
+    @Test
+    void reportFailedUpgrade() {
+        List<Throwable> exceptions = new ArrayList<>();
+        LambdaManager manager = LambdaManager.basic(new TieredGenerator(new ReflectionGenerator(), new FailingGenerator(), 1));
+        manager.setExceptionHandler((handler, event, t) -> exceptions.add(t));
+        manager.register(this);
+        manager.call("a");
+        manager.call("b");
+        assertEquals(2, this.called);
+        assertEquals(1, exceptions.size());
+        assertInstanceOf(UnsupportedOperationException.class, exceptions.get(0).getCause());
+    }
+
+    @Test
+    void invalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new TieredGenerator(new ReflectionGenerator(), new ReflectionGenerator(), 0));
+    }
+
+    @EventHandler
+    public void onEvent(final String event) {
+        this.called++;
+    }
+
+
+    private static class FailingGenerator implements IGenerator {
+        @Override
+        public AHandler generate(Class<?> owner, Object instance, EventHandler annotation, Method method, Class<?> arg) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AHandler generateVirtual(Class<?> owner, Object instance, EventHandler annotation, Method method) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static class Ordered {
+        private final List<String> called;
+
+        public Ordered(final List<String> called) {
+            this.called = called;
+        }
+
+        @EventHandler(priority = 1)
+        public void onHigh(final String event) {
+            this.called.add("high");
+        }
+
+        @EventHandler(priority = -1)
+        public void onLow(final String event) {
+            this.called.add("low");
+        }
+    }
+
+    public static class Throwing {
+        @EventHandler
+        public void onEvent(final String event) {
+            throw new IllegalStateException("Test");
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package net.lenni0451.lambdaevents;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.lenni0451.lambdaevents.TestManager.DATA_SOURCE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualCallTest {
+
+    private final List<String> called = new ArrayList<>();
+    @EventHandler(events = TickEvent.class, priority = -1)
+    public final Runnable fieldHandler = () -> this.called.add("field");
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void callVirtual(final LambdaManager manager) {
+        manager.register(this);
+        manager.registerRunnable(() -> this.called.add("runnable"), 1, TickEvent.class);
+        manager.callVirtual(TickEvent.class);
+        assertEquals(Arrays.asList("runnable", "method", "field"), this.called);
+
+        this.called.clear();
+        manager.callVirtual(String.class); //No handlers
+        assertTrue(this.called.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void stopCall(final LambdaManager manager) {
+        manager.register(this);
+        manager.registerRunnable(() -> {
+            this.called.add("stop");
+            throw StopCall.INSTANCE;
+        }, 1, TickEvent.class);
+        manager.callVirtual(TickEvent.class);
+        assertEquals(Arrays.asList("stop"), this.called);
+    }
+
+    @ParameterizedTest
+    @MethodSource(DATA_SOURCE)
+    void rejectInstanceHandlers(final LambdaManager manager) {
+        manager.registerRunnable(() -> this.called.add("runnable"), TickEvent.class);
+        manager.registerConsumer(event -> this.called.add("consumer"), 1, TickEvent.class);
+        assertThrows(IllegalStateException.class, () -> manager.callVirtual(TickEvent.class));
+        assertTrue(this.called.isEmpty()); //No handler was called
+
+        manager.register(new GuardedHandler());
+        assertThrows(IllegalStateException.class, () -> manager.callVirtual(String.class));
+    }
+
+
+    @EventHandler(events = TickEvent.class)
+    public void onTick() {
+        this.called.add("method");
+    }
+
+
+    public static class TickEvent {
+    }
+
+    public static class GuardedHandler {
+        public static boolean isEmpty(final String s) {
+            return s.isEmpty();
+        }
+
+        @EventHandler(events = String.class, guards = "isEmpty")
+        public void onEmptyString() {
+        }
+    }
+
+}